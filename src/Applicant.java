@@ -1,7 +1,5 @@
 package src;
 
-import java.util.ArrayList;
-
 /**
  * Represents an applicant in the BTO system. 
  * Inherits common user attributes and behavior from the User class.
@@ -9,7 +7,7 @@ import java.util.ArrayList;
  */
 public class Applicant extends User {
     private Application application;
-    private ArrayList<Enquiry> enquiries = new ArrayList<>();
+    private final int eligibleFlatTypes;
 
     /**
      * Constructs a new Applicant with the specified personal details.
@@ -21,6 +19,7 @@ public class Applicant extends User {
      */
     public Applicant(String name, String nric, int age, String maritalStatus) {
         super(name, nric, age, maritalStatus);
+        this.eligibleFlatTypes = this.maritalStatus.eligibleFlatTypes(age);
     }
 
     /**
@@ -30,12 +29,17 @@ public class Applicant extends User {
      * @return true if the applicant is eligible, false otherwise
      */
     public boolean canApply(FlatType flatType) {
-        if (maritalStatus.equalsIgnoreCase("single") && age >= 35) {
-            return flatType == FlatType.TWO_ROOM;
-        } else if (maritalStatus.equalsIgnoreCase("married") && age >= 21) {
-            return true;
-        }
-        return false;
+        return (eligibleFlatTypes & flatType.mask()) != 0;
+    }
+
+    /**
+     * Returns the flat types the applicant may apply for, worked out once from
+     * their age and marital status when the applicant is created.
+     *
+     * @return a bitmask of {@link FlatType#mask()} values, 0 if not eligible for any
+     */
+    public int getEligibleFlatTypes() {
+        return eligibleFlatTypes;
     }
 
     /**
@@ -55,22 +59,4 @@ public class Applicant extends User {
     public void setApplication(Application application) {
         this.application = application;
     }
-
-    /**
-     * Adds a new enquiry to the list of enquiries for this applicant.
-     * 
-     * @param enquiry the enquiry to add
-     */
-    public void addEnquiry(Enquiry enquiry) {
-        enquiries.add(enquiry);
-    }
-
-    /**
-     * Gets the list of enquiries submitted by this applicant.
-     * 
-     * @return a list of enquiries
-     */
-    public ArrayList<Enquiry> getEnquiries() {
-        return enquiries;
-    }
 }
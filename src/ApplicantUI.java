@@ -53,6 +53,7 @@ public class ApplicantUI {
                 case 6 -> {
                     System.out.print("Enter new password: ");
                     applicant.changePassword(sc.nextLine());
+                    Journal.getInstance().recordPassword(applicant);
                     System.out.println("Password changed.");
                 }
                 case 7 -> {
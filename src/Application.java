@@ -1,12 +1,25 @@
 package src;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Represents a Build-To-Order (BTO) flat application submitted by an applicant.
+ * The status moves only along the transitions allowed by {@link Status#canTransitionTo},
+ * through {@link #compareAndSetStatus}, so sessions deciding on the same application
+ * at the same time cannot both succeed.
  */
 public class Application {
+    private static final int STATUS_BITS = 8;
+    private static final long STATUS_MASK = (1L << STATUS_BITS) - 1;
+    private static final Status[] STATUSES = Status.values();
 
     /**
-     * Enum representing the status of an application.
+     * Enum representing the status of an application, with the transitions allowed
+     * out of each status.
      */
     public enum Status {
         PENDING, 
@@ -14,14 +27,60 @@ public class Application {
         UNSUCCESSFULAPPLY, 
         BOOKED, 
         SUCCESSFULWITHDRAW, 
-        UNSUCCESSFULWITHDRAW
+        UNSUCCESSFULWITHDRAW;
+
+        private static final Map<Status, Set<Status>> TRANSITIONS = new EnumMap<>(Status.class);
+
+        static {
+            for (Status status : values()) {
+                TRANSITIONS.put(status, EnumSet.noneOf(Status.class));
+            }
+            TRANSITIONS.get(PENDING).addAll(EnumSet.of(SUCCESSFULAPPLY, UNSUCCESSFULAPPLY, SUCCESSFULWITHDRAW));
+            TRANSITIONS.get(SUCCESSFULAPPLY).addAll(EnumSet.of(BOOKED, SUCCESSFULWITHDRAW));
+            TRANSITIONS.get(BOOKED).add(SUCCESSFULWITHDRAW);
+        }
+
+        /**
+         * Checks whether an application may move from this status to another.
+         * Pending applications are approved or rejected, approved ones are booked, and
+         * pending, approved or booked applications can be withdrawn. Unsuccessful and
+         * withdrawn applications are final.
+         *
+         * @param next the status to move to
+         * @return true if the transition is allowed
+         */
+        public boolean canTransitionTo(Status next) {
+            return TRANSITIONS.get(this).contains(next);
+        }
+    }
+
+    /**
+     * Listener notified whenever the status or the withdrawal request of an application changes.
+     */
+    public interface StatusListener {
+        /**
+         * Called after the status of an application has changed.
+         *
+         * @param app       the application
+         * @param oldStatus the status before the change
+         */
+        void statusChanged(Application app, Status oldStatus);
+
+        /**
+         * Called after withdrawal of an application has been requested or the request cleared.
+         *
+         * @param app the application
+         */
+        void withdrawalChanged(Application app);
     }
 
     private Applicant applicant;
     private Project project;
     private FlatType flatType;
-    private Status status;
+    /** Version in the high bits, status ordinal in the low {@link #STATUS_BITS} bits. */
+    private final AtomicLong state;
     private boolean withdrawalRequested = false; 
+    private volatile StatusListener statusListener;
 
     /**
      * Constructs a new Application with default status set to PENDING.
@@ -34,7 +93,7 @@ public class Application {
         this.applicant = applicant;
         this.project = project;
         this.flatType = flatType;
-        this.status = Status.PENDING;
+        this.state = new AtomicLong(Status.PENDING.ordinal());
     }
 
     /**
@@ -70,16 +129,76 @@ public class Application {
      * @return the status
      */
     public Status getStatus() {
-        return status;
+        return STATUSES[(int) (state.get() & STATUS_MASK)];
+    }
+
+    /**
+     * Returns the version of the status, which goes up by one with every status change.
+     *
+     * @return the status version
+     */
+    public long getVersion() {
+        return state.get() >>> STATUS_BITS;
+    }
+
+    /**
+     * Moves the application from an expected status to another one, atomically.
+     * Concurrent callers expecting the same status cannot both succeed, so for instance
+     * a booking and a withdrawal of the same approved application never both apply.
+     *
+     * @param expected the status the application must currently have
+     * @param next     the status to move to
+     * @return true if the status was changed, false if it was not the expected one
+     * @throws IllegalArgumentException if the transition is not allowed
+     */
+    public boolean compareAndSetStatus(Status expected, Status next) {
+        if (!expected.canTransitionTo(next)) {
+            throw new IllegalArgumentException("Illegal application transition " + expected + " -> " + next);
+        }
+        long current;
+        do {
+            current = state.get();
+            if ((current & STATUS_MASK) != expected.ordinal()) {
+                return false;
+            }
+        } while (!state.compareAndSet(current, next(current, next)));
+        statusChanged(expected);
+        return true;
     }
 
     /**
-     * Sets the status of the application.
+     * Sets the status without checking the transition table, for restoring a status that
+     * was persisted earlier.
      *
-     * @param status the new status
+     * @param status the persisted status
      */
-    public void setStatus(Status status) {
-        this.status = status;
+    void restoreStatus(Status status) {
+        long current = state.getAndUpdate(s -> next(s, status));
+        Status oldStatus = STATUSES[(int) (current & STATUS_MASK)];
+        if (oldStatus != status) {
+            statusChanged(oldStatus);
+        }
+    }
+
+    private static long next(long current, Status status) {
+        return ((current >>> STATUS_BITS) + 1) << STATUS_BITS | status.ordinal();
+    }
+
+    private void statusChanged(Status oldStatus) {
+        ChangeTracker.markDirty(ChangeTracker.Dataset.APPLICATIONS);
+        StatusListener listener = statusListener;
+        if (listener != null) {
+            listener.statusChanged(this, oldStatus);
+        }
+    }
+
+    /**
+     * Sets the listener notified of status changes, replacing any previous one.
+     *
+     * @param listener the listener, or null for none
+     */
+    void setStatusListener(StatusListener listener) {
+        this.statusListener = listener;
     }
 
     /**
@@ -88,7 +207,12 @@ public class Application {
      * @param withdrawalRequested true if withdrawal was requested
      */
     public void setWithdrawal(boolean withdrawalRequested) {
+        boolean changed = this.withdrawalRequested != withdrawalRequested;
         this.withdrawalRequested = withdrawalRequested;
+        ChangeTracker.markDirty(ChangeTracker.Dataset.APPLICATIONS);
+        if (statusListener != null && changed) {
+            statusListener.withdrawalChanged(this);
+        }
     }
 
     /**
@@ -104,7 +228,7 @@ public class Application {
      * Flags this application as having requested withdrawal.
      */
     public void requestWithdrawal() {
-        this.withdrawalRequested = true;
+        setWithdrawal(true);
     }
 
     /**
@@ -132,6 +256,6 @@ public class Application {
      */
     public String toString() {
         return applicant.getNric() + " applied for " + flatType + " at " + project.getName()
-                + " | Status: " + status + " | Action: " + getAction();
+                + " | Status: " + getStatus() + " | Action: " + getAction();
     }
 }
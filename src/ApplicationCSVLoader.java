@@ -1,6 +1,6 @@
 package src;
 
-import java.io.*;
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -13,46 +13,40 @@ public class ApplicationCSVLoader extends DataReader {
      * Loads applications from a CSV file into memory.
      *
      * @param filePath         path to the CSV file
-     * @param allApplicants    list of all applicants
-     * @param allProjects      list of all projects
+     * @param symbols          symbol table of loaded applicants and projects
      * @param allApplications  list where loaded applications will be stored
      * @return updated list of applications
      */
     public List<Application> loadApplicationsFromCSV(
             String filePath,
-            List<Applicant> allApplicants,
-            List<Project> allProjects,
+            SymbolTable symbols,
             List<Application> allApplications
     ) {
-        List<String[]> rows = readCSVFile(filePath);
-
-        for (int i = 1; i < rows.size(); i++) {
+        streamCSVFile(filePath, (row, i) -> {
             try {
-                String[] row = rows.get(i);
-
-                String applicantNric = row[0].trim();
-                String projectName = row[1].trim();
-                FlatType flatType = FlatType.valueOf(row[2].trim());
-                Application.Status status = Application.Status.valueOf(row[3].trim());
+                String applicantNric = row.get(0).trim();
+                String projectName = row.get(1).trim();
+                FlatType flatType = FlatType.valueOf(row.get(2).trim());
+                Application.Status status = Application.Status.valueOf(row.get(3).trim());
                 
-                Applicant applicant = findApplicantByNric(allApplicants, applicantNric);
-                Project project = findProjectByName(allProjects, projectName);
-                boolean withdrawalRequested = "Withdrawal".equalsIgnoreCase(row[4].trim());
+                Applicant applicant = symbols.findApplicant(applicantNric);
+                Project project = symbols.findProject(projectName);
+                boolean withdrawalRequested = "Withdrawal".equalsIgnoreCase(row.get(4).trim());
 
                 if (applicant == null || project == null) {
                     System.out.println("Warning: Invalid applicant/project at row " + i);
-                    continue;
+                    return;
                 }
 
                 Application app = new Application(applicant, project, flatType);
                 app.setWithdrawal(withdrawalRequested);
-                app.setStatus(status);
+                app.restoreStatus(status);
                 applicant.setApplication(app);
                 allApplications.add(app);
             } catch (Exception e) {
                 System.out.println("Error loading application row " + i + ": " + e.getMessage());
             }
-        }
+        });
 
         return allApplications;
     }
@@ -62,53 +56,42 @@ public class ApplicationCSVLoader extends DataReader {
      *
      * @param filePath      path to the destination CSV file
      * @param applications  list of applications to be saved
+     * @return true if the file was written successfully
      */
-    public void saveApplicationsToCSV(String filePath, List<Application> applications) {
-        try (PrintWriter out = new PrintWriter(new FileWriter(filePath))) {
-            out.println("ApplicantNRIC;ProjectName;FlatType;Status;Action");
-
-            for (Application app : applications) {
-                out.println(String.join(";",
-                    app.getApplicant().getNric(),
-                    app.getProject().getName(),
-                    app.getFlatType().toString(),
-                    app.getStatus().toString(),
-                    app.getAction()
-                ));
+    public boolean saveApplicationsToCSV(String filePath, List<Application> applications) {
+        try (AtomicFileWriter out = new AtomicFileWriter(filePath)) {
+            for (String line : formatApplicationsAsCSV(applications)) {
+                out.println(line);
             }
 
+            out.commit();
             System.out.println("Applications saved to " + filePath);
+            return true;
         } catch (IOException e) {
             System.err.println("Failed to save applications:");
             e.printStackTrace();
+            return false;
         }
     }
 
     /**
-     * Finds an applicant in the list by NRIC.
-     *
-     * @param applicants  list of all applicants
-     * @param nric        NRIC to search for
-     * @return matching Applicant object or null if not found
-     */
-    private Applicant findApplicantByNric(List<Applicant> applicants, String nric) {
-        for (Applicant a : applicants) {
-            if (a.getNric().equalsIgnoreCase(nric)) return a;
-        }
-        return null;
-    }
-
-    /**
-     * Finds a project in the list by name.
+     * Formats the list of applications as CSV lines, starting with the header.
      *
-     * @param projects  list of all projects
-     * @param name      name of the project
-     * @return matching Project object or null if not found
+     * @param applications  list of applications to format
+     * @return the lines of the CSV file
      */
-    private Project findProjectByName(List<Project> projects, String name) {
-        for (Project p : projects) {
-            if (p.getName().equalsIgnoreCase(name)) return p;
+    public List<String> formatApplicationsAsCSV(List<Application> applications) {
+        List<String> lines = new ArrayList<>(applications.size() + 1);
+        lines.add("ApplicantNRIC;ProjectName;FlatType;Status;Action");
+        for (Application app : applications) {
+            lines.add(formatCSVRow(
+                app.getApplicant().getNric(),
+                app.getProject().getName(),
+                app.getFlatType().toString(),
+                app.getStatus().toString(),
+                app.getAction()
+            ));
         }
-        return null;
+        return lines;
     }
 }
@@ -1,6 +1,7 @@
 package src;
 
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Controller class that handles application-related logic such as applying for flats,
@@ -19,13 +20,29 @@ public class ApplicationController {
     }
 
     /**
-     * Handles application submission for an applicant.
+     * Handles application submission for an applicant. The checks and the insertion run
+     * under the applicant's and the project's lock stripes, so two sessions of the same
+     * applicant cannot both submit an application.
      *
      * @param applicant the applicant submitting the application
      * @param project the project the applicant is applying to
      * @param type the type of flat the applicant is applying for
      */
     public void apply(Applicant applicant, Project project, FlatType type) {
+        Lock applicantLock = LockStripes.APPLICANTS.lock(applicant.getNricKey());
+        try {
+            Lock projectLock = LockStripes.PROJECTS.lock(LockStripes.key(project));
+            try {
+                applyLocked(applicant, project, type);
+            } finally {
+                projectLock.unlock();
+            }
+        } finally {
+            applicantLock.unlock();
+        }
+    }
+
+    private void applyLocked(Applicant applicant, Project project, FlatType type) {
         if (applicant.getApplication() != null) {
             System.out.println("You have already applied for a BTO.");
             return;
@@ -44,23 +61,32 @@ public class ApplicationController {
         Application app = new Application(applicant, project, type);
         applicant.setApplication(app);
         allApplications.add(app);
+        ChangeTracker.markDirty(ChangeTracker.Dataset.APPLICATIONS);
+        Journal.getInstance().recordApplication(app);
         System.out.println("Application submitted. Status: Pending");
     }
 
     /**
-     * Allows the applicant to request withdrawal of an existing application.
+     * Allows the applicant to request withdrawal of an existing application. Runs under
+     * the applicant's lock stripe and that of the application's project.
      *
      * @param applicant the applicant requesting withdrawal
      */
     public void requestToWithdraw(Applicant applicant) {
+        withApplicationLocked(applicant, () -> requestToWithdrawLocked(applicant));
+    }
+
+    private void requestToWithdrawLocked(Applicant applicant) {
         Application app = applicant.getApplication();
         if (app == null) {
             System.out.println("No application to withdraw");
-        } else if (app.getStatus().toString().equalsIgnoreCase("Pending") && !app.isWithdrawalRequested()) {
-            deleteApplicantApplication(applicant);
+        } else if (!app.isWithdrawalRequested()
+                && app.compareAndSetStatus(Application.Status.PENDING, Application.Status.SUCCESSFULWITHDRAW)) {
+            deleteApplicantApplicationLocked(applicant);
             System.out.println("Removed your application.");
         } else {
             app.requestWithdrawal();
+            Journal.getInstance().recordApplication(app);
             System.out.println("Withdrawal is requested");
         }
     }
@@ -84,6 +110,10 @@ public class ApplicationController {
      * @param applicant the applicant whose application is to be deleted
      */
     public void deleteApplicantApplication(Applicant applicant) {
+        withApplicationLocked(applicant, () -> deleteApplicantApplicationLocked(applicant));
+    }
+
+    private void deleteApplicantApplicationLocked(Applicant applicant) {
         Application app = applicant.getApplication();
         if (app == null) return;
 
@@ -92,7 +122,31 @@ public class ApplicationController {
 
         // Step 2: Remove from master list
         allApplications.remove(app);
+        ChangeTracker.markDirty(ChangeTracker.Dataset.APPLICATIONS);
+        Journal.getInstance().recordApplicationDeleted(applicant);
 
         System.out.println("Application deleted for " + applicant.getNric());
     }
+
+    /**
+     * Runs an action under the applicant's lock stripe and, if the applicant has an
+     * application, the stripe of its project, which manager approvals and officer
+     * bookings of the application also hold.
+     */
+    private static void withApplicationLocked(Applicant applicant, Runnable action) {
+        Lock applicantLock = LockStripes.APPLICANTS.lock(applicant.getNricKey());
+        try {
+            Application app = applicant.getApplication();
+            Lock projectLock = app == null ? null : LockStripes.PROJECTS.lock(LockStripes.key(app.getProject()));
+            try {
+                action.run();
+            } finally {
+                if (projectLock != null) {
+                    projectLock.unlock();
+                }
+            }
+        } finally {
+            applicantLock.unlock();
+        }
+    }
 }
@@ -2,10 +2,11 @@ package src;
 
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Service class responsible for managing applications, including
- * viewing, approving, and handling withdrawals.
+ * viewing, approving or balloting, and handling withdrawals.
  */
 public class ApplicationManagementService {
 
@@ -24,32 +25,52 @@ public class ApplicationManagementService {
     /**
      * Allows a manager to approve or reject pending applications
      * that belong to projects they manage. Approving an application
-     * reduces the flat unit count for the corresponding project.
+     * reserves a unit of its flat type in the project's inventory; if no unit
+     * is left, the application is marked unsuccessful instead. Each decision is
+     * applied under the project's lock stripe as a compare-and-set from PENDING, so
+     * a decision made meanwhile in another session is never overwritten.
      *
      * @param manager          the HDB manager approving the applications
      * @param sc               scanner for input
-     * @param allApplications  list of all applications
+     * @param allApplications  store of all applications
      */
-    public void approveApplications(HDBManager manager, Scanner sc, List<Application> allApplications) {
+    public void approveApplications(HDBManager manager, Scanner sc, ApplicationStore allApplications) {
         boolean foundAny = false;
 
-        for (Application app : allApplications) {
-            if (app.getStatus() == Application.Status.PENDING &&
-                app.getProject().getManagerInCharge() != null &&
-                app.getProject().getManagerInCharge().getNric().equals(manager.getNric())) {
+        for (Application app : allApplications.findByStatus(Application.Status.PENDING)) {
+            if (app.getProject().getManagerInCharge() != null &&
+                app.getProject().getManagerInCharge().getNricKey() == manager.getNricKey()) {
 
                 foundAny = true;
                 System.out.println(app);
                 System.out.print("Approve this application? (y/n): ");
                 String input = sc.nextLine();
 
-                if (input.equalsIgnoreCase("y")) {
+                Project proj = app.getProject();
+                Lock projectLock = LockStripes.PROJECTS.lock(LockStripes.key(proj));
+                try {
                     FlatType type = app.getFlatType();
-                    Project proj = app.getProject();
-                    proj.setFlatUnits(type, proj.getAvailableUnits(type) - 1);
-                    app.setStatus(Application.Status.SUCCESSFULAPPLY);
-                } else {
-                    app.setStatus(Application.Status.UNSUCCESSFULAPPLY);
+                    boolean approved = input.equalsIgnoreCase("y");
+                    boolean reserved = approved && proj.getInventory().tryReserve(type);
+                    Application.Status decision = reserved
+                            ? Application.Status.SUCCESSFULAPPLY
+                            : Application.Status.UNSUCCESSFULAPPLY;
+                    if (!allApplications.contains(app)
+                            || !app.compareAndSetStatus(Application.Status.PENDING, decision)) {
+                        if (reserved) {
+                            proj.getInventory().release(type);
+                        }
+                        System.out.println("Application was changed in another session. Skipped.");
+                        continue;
+                    }
+                    if (reserved) {
+                        Journal.getInstance().recordProject(proj);
+                    } else if (approved) {
+                        System.out.println("No more units available for " + type + ". Application unsuccessful.");
+                    }
+                    Journal.getInstance().recordApplication(app);
+                } finally {
+                    projectLock.unlock();
                 }
             }
         }
@@ -62,33 +83,109 @@ public class ApplicationManagementService {
     }
 
     /**
-     * Handles withdrawal requests by applicants. If approved, the application
-     * is removed, and flat units are returned to the respective project.
+     * Decides every pending application of one or all of the manager's projects by ballot.
+     * The seed used is printed so the same draw can be reproduced.
      *
+     * @param manager          the HDB manager running the ballot
      * @param sc               scanner for input
-     * @param allApplicants    list of all applicants
-     * @param allApplications  list of all applications
+     * @param allProjects      catalog of all projects
+     * @param allApplications  store of all applications
      */
-    public void handleWithdrawals(Scanner sc, List<Applicant> allApplicants, List<Application> allApplications) {
-        for (Applicant a : allApplicants) {
-            Application app = a.getApplication();
+    public void runBallot(HDBManager manager, Scanner sc, ProjectCatalog allProjects,
+                          ApplicationStore allApplications) {
+        System.out.print("Enter project name to ballot (blank for all your projects): ");
+        String name = sc.nextLine().trim();
+        List<Project> projects;
+        if (name.isEmpty()) {
+            projects = allProjects.findByManager(manager.getNric());
+        } else {
+            Project project = allProjects.findByName(name);
+            if (project == null || project.getManagerInCharge() == null
+                    || project.getManagerInCharge().getNricKey() != manager.getNricKey()) {
+                System.out.println("You are not in charge of a project with that name.");
+                return;
+            }
+            projects = List.of(project);
+        }
 
-            if (app != null && app.isWithdrawalRequested() &&
-                (app.getStatus() == Application.Status.PENDING ||
-                 app.getStatus() == Application.Status.SUCCESSFULAPPLY ||
-                 app.getStatus() == Application.Status.BOOKED)) {
+        System.out.print("Enter ballot seed (blank for a new one): ");
+        String seedText = sc.nextLine().trim();
+        long seed;
+        try {
+            seed = seedText.isEmpty() ? System.nanoTime() : Long.parseLong(seedText);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid seed.");
+            return;
+        }
+
+        List<BallotEngine.Outcome> outcomes = new BallotEngine(allApplications).run(projects, seed);
+        if (outcomes.isEmpty()) {
+            System.out.println("No pending applications to ballot.");
+            return;
+        }
+        System.out.println("\n== Ballot Results (seed " + seed + ") ==");
+        for (BallotEngine.Outcome outcome : outcomes) {
+            System.out.println(outcome.getProject().getName() + " " + outcome.getFlatType().getLabel()
+                    + ": " + outcome.getApplicants() + " applicants, "
+                    + outcome.getSuccessful() + " successful, "
+                    + outcome.getUnsuccessful() + " unsuccessful");
+        }
+    }
+
+    /**
+     * Handles withdrawal requests for the projects a manager is in charge of, oldest
+     * first within each project. If approved, the application is removed, and the unit
+     * it had reserved or booked, if any, is returned to the project's inventory; if denied,
+     * the request goes to the back of its project's queue.
+     *
+     * @param manager          the HDB manager handling the requests
+     * @param sc               scanner for input
+     * @param allProjects      catalog of all projects
+     * @param allApplications  store of all applications, holding the withdrawal queues
+     */
+    public void handleWithdrawals(HDBManager manager, Scanner sc, ProjectCatalog allProjects,
+                                  ApplicationStore allApplications) {
+        for (Project proj : allProjects.findByManager(manager.getNric())) {
+            int requests = allApplications.countWithdrawalRequests(proj);
+            for (int i = 0; i < requests; i++) {
+                Application app = allApplications.pollWithdrawalRequest(proj);
+                if (app == null) {
+                    break;
+                }
+                Applicant a = app.getApplicant();
 
                 System.out.println("Withdrawal request from: " + a.getNric());
                 System.out.print("Approve withdrawal? (y/n): ");
 
                 if (sc.nextLine().equalsIgnoreCase("y")) {
-                    FlatType type = app.getFlatType();
-                    Project proj = app.getProject();
-                    proj.setFlatUnits(type, proj.getAvailableUnits(type) + 1);
-                    a.setApplication(null);
-                    allApplications.remove(app);
+                    Lock applicantLock = LockStripes.APPLICANTS.lock(a.getNricKey());
+                    Lock projectLock = LockStripes.PROJECTS.lock(LockStripes.key(proj));
+                    try {
+                        Application.Status status = app.getStatus();
+                        if (a.getApplication() != app || !allApplications.contains(app)
+                                || !status.canTransitionTo(Application.Status.SUCCESSFULWITHDRAW)
+                                || !app.compareAndSetStatus(status, Application.Status.SUCCESSFULWITHDRAW)) {
+                            System.out.println("Application was changed in another session. Skipped.");
+                            continue;
+                        }
+                        FlatType type = app.getFlatType();
+                        if (status == Application.Status.SUCCESSFULAPPLY) {
+                            proj.getInventory().release(type);
+                        } else if (status == Application.Status.BOOKED) {
+                            proj.getInventory().returnSold(type);
+                        }
+                        a.setApplication(null);
+                        allApplications.remove(app);
+                        ChangeTracker.markDirty(ChangeTracker.Dataset.APPLICATIONS);
+                        Journal.getInstance().recordProject(proj);
+                        Journal.getInstance().recordApplicationDeleted(a);
+                    } finally {
+                        projectLock.unlock();
+                        applicantLock.unlock();
+                    }
                     System.out.println("Application withdrawn.");
                 } else {
+                    allApplications.requeueWithdrawal(app);
                     System.out.println("Withdrawal denied.");
                 }
             }
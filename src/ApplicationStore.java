@@ -0,0 +1,298 @@
+package src;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * The list of all applications, together with indexes of the applications by
+ * project, by status and by applicant NRIC, and a FIFO queue per project of the
+ * applications whose withdrawal has been requested but not yet decided.
+ * Every way of adding or removing an application goes through this list, and the store
+ * listens for status and withdrawal changes on the applications it holds, so the indexes
+ * stay consistent with the applications. Lookups cost time proportional to the number
+ * of matches.
+ *
+ * Removing an application moves the last application into its place, so removal takes
+ * constant time; the order of the list is therefore not meaningful once applications
+ * have been removed.
+ *
+ * The store's lock only keeps its indexes consistent with each other; it does not
+ * make an application workflow atomic, which is what {@link LockStripes} are for.
+ * Status changes are applied by compare-and-set on the application and reach the
+ * indexes through the synchronized listener, and iterating walks a copy of the list.
+ */
+public class ApplicationStore extends AbstractList<Application>
+        implements RandomAccess, Application.StatusListener {
+    private final List<Application> applications = new ArrayList<>();
+    private final Map<Application, Integer> positions = new IdentityHashMap<>();
+    private final Map<Project, Map<Application.Status, Set<Application>>> byProject = new HashMap<>();
+    private final Map<Application.Status, Set<Application>> byStatus = new EnumMap<>(Application.Status.class);
+    private final LongHashMap<Set<Application>> byApplicant = new LongHashMap<>();
+    private final Map<Project, Set<Application>> withdrawalQueues = new HashMap<>();
+
+    /**
+     * Returns the applications with the given status.
+     *
+     * @param status the status to look up
+     * @return a snapshot of the matching applications
+     */
+    public synchronized List<Application> findByStatus(Application.Status status) {
+        return snapshot(byStatus.get(status));
+    }
+
+    /**
+     * Returns the applications for the given project.
+     *
+     * @param project the project to look up
+     * @return a snapshot of the matching applications
+     */
+    public synchronized List<Application> findByProject(Project project) {
+        List<Application> matches = new ArrayList<>();
+        for (Set<Application> apps : byProject.getOrDefault(project, Collections.emptyMap()).values()) {
+            matches.addAll(apps);
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the applications for the given project that have the given status.
+     *
+     * @param project the project to look up
+     * @param status  the status to look up
+     * @return a snapshot of the matching applications
+     */
+    public synchronized List<Application> findByProject(Project project, Application.Status status) {
+        return snapshot(byProject.getOrDefault(project, Collections.emptyMap()).get(status));
+    }
+
+    /**
+     * Returns the applications submitted by the applicant with the given NRIC.
+     *
+     * @param nric the applicant's NRIC, in any case
+     * @return a snapshot of the matching applications
+     */
+    public synchronized List<Application> findByApplicant(String nric) {
+        return snapshot(byApplicant.get(NricCodec.encode(nric)));
+    }
+
+    /**
+     * Returns the number of undecided withdrawal requests for the given project.
+     *
+     * @param project the project to look up
+     * @return the length of the project's withdrawal queue
+     */
+    public synchronized int countWithdrawalRequests(Project project) {
+        Set<Application> queue = withdrawalQueues.get(project);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Takes the oldest undecided withdrawal request for the given project off its queue.
+     * A request that is then denied should be put back with {@link #requeueWithdrawal}.
+     *
+     * @param project the project whose queue to take from
+     * @return the application, or null if the queue is empty
+     */
+    public synchronized Application pollWithdrawalRequest(Project project) {
+        Set<Application> queue = withdrawalQueues.get(project);
+        if (queue == null) {
+            return null;
+        }
+        Iterator<Application> it = queue.iterator();
+        Application app = it.next();
+        it.remove();
+        if (queue.isEmpty()) {
+            withdrawalQueues.remove(project);
+        }
+        return app;
+    }
+
+    /**
+     * Puts an application back at the end of its project's withdrawal queue, if its
+     * withdrawal is still requested and it can still be withdrawn.
+     *
+     * @param app the application
+     */
+    public synchronized void requeueWithdrawal(Application app) {
+        if (positions.containsKey(app) && awaitsWithdrawal(app)) {
+            withdrawalQueues.computeIfAbsent(app.getProject(), p -> new LinkedHashSet<>()).add(app);
+        }
+    }
+
+    @Override
+    public synchronized Application get(int index) {
+        return applications.get(index);
+    }
+
+    @Override
+    public synchronized int size() {
+        return applications.size();
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the list taken under the store's lock, so
+     * iterating never sees a half-applied change made by another session. The iterator
+     * does not support removal.
+     *
+     * @return an iterator over the applications at the time of the call
+     */
+    @Override
+    public synchronized Iterator<Application> iterator() {
+        return Collections.unmodifiableList(new ArrayList<>(applications)).iterator();
+    }
+
+    @Override
+    public synchronized void add(int index, Application app) {
+        applications.add(index, app);
+        renumber(index);
+        index(app, app.getStatus());
+        requeueWithdrawal(app);
+        app.setStatusListener(this);
+    }
+
+    @Override
+    public synchronized Application set(int index, Application app) {
+        Application old = applications.get(index);
+        detach(old);
+        applications.set(index, app);
+        positions.put(app, index);
+        index(app, app.getStatus());
+        requeueWithdrawal(app);
+        app.setStatusListener(this);
+        return old;
+    }
+
+    @Override
+    public synchronized Application remove(int index) {
+        Application app = applications.get(index);
+        Application last = applications.remove(applications.size() - 1);
+        if (last != app) {
+            applications.set(index, last);
+            positions.put(last, index);
+        }
+        detach(app);
+        return app;
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+        Integer index = positions.get(o);
+        if (index == null) {
+            return false;
+        }
+        remove((int) index);
+        return true;
+    }
+
+    @Override
+    public synchronized int indexOf(Object o) {
+        Integer index = positions.get(o);
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    public synchronized boolean contains(Object o) {
+        return positions.containsKey(o);
+    }
+
+    /**
+     * Moves an application to the indexes of its current status. Status changes made
+     * on different threads may be notified out of order, so the application is taken
+     * out of the indexes of every status rather than only the old one, and the current
+     * status is read under the store's lock; the last notification leaves the indexes right.
+     *
+     * @param app       the application whose status changed
+     * @param oldStatus the status before the change
+     */
+    @Override
+    public synchronized void statusChanged(Application app, Application.Status oldStatus) {
+        if (!positions.containsKey(app)) {
+            return;
+        }
+        for (Application.Status status : Application.Status.values()) {
+            unindex(app, status);
+        }
+        index(app, app.getStatus());
+        withdrawalChanged(app);
+    }
+
+    /**
+     * Adds an application to its project's withdrawal queue when its withdrawal is
+     * requested, and takes it off the queue when it can no longer be withdrawn.
+     *
+     * @param app the application whose withdrawal request changed
+     */
+    @Override
+    public synchronized void withdrawalChanged(Application app) {
+        if (awaitsWithdrawal(app)) {
+            requeueWithdrawal(app);
+        } else {
+            removeFrom(withdrawalQueues, app.getProject(), app);
+        }
+    }
+
+    private static boolean awaitsWithdrawal(Application app) {
+        Application.Status status = app.getStatus();
+        return app.isWithdrawalRequested()
+                && (status == Application.Status.PENDING
+                    || status == Application.Status.SUCCESSFULAPPLY
+                    || status == Application.Status.BOOKED);
+    }
+
+    private void renumber(int from) {
+        for (int i = from; i < applications.size(); i++) {
+            positions.put(applications.get(i), i);
+        }
+    }
+
+    private void detach(Application app) {
+        positions.remove(app);
+        unindex(app, app.getStatus());
+        removeFrom(withdrawalQueues, app.getProject(), app);
+        app.setStatusListener(null);
+    }
+
+    private void index(Application app, Application.Status status) {
+        byProject.computeIfAbsent(app.getProject(), p -> new EnumMap<>(Application.Status.class))
+                .computeIfAbsent(status, s -> new LinkedHashSet<>()).add(app);
+        byStatus.computeIfAbsent(status, s -> new LinkedHashSet<>()).add(app);
+        byApplicant.computeIfAbsent(app.getApplicant().getNricKey(), k -> new LinkedHashSet<>()).add(app);
+    }
+
+    private void unindex(Application app, Application.Status status) {
+        Map<Application.Status, Set<Application>> projectApps = byProject.get(app.getProject());
+        if (projectApps != null) {
+            removeFrom(projectApps, status, app);
+            if (projectApps.isEmpty()) {
+                byProject.remove(app.getProject());
+            }
+        }
+        removeFrom(byStatus, status, app);
+        long applicant = app.getApplicant().getNricKey();
+        Set<Application> apps = byApplicant.get(applicant);
+        if (apps != null && apps.remove(app) && apps.isEmpty()) {
+            byApplicant.remove(applicant);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Application>> index, K key, Application app) {
+        Set<Application> apps = index.get(key);
+        if (apps != null && apps.remove(app) && apps.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static List<Application> snapshot(Set<Application> apps) {
+        return apps == null ? new ArrayList<>() : new ArrayList<>(apps);
+    }
+}
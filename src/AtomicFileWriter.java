@@ -0,0 +1,129 @@
+package src;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a file so that readers and crashes only ever see the old or the new contents.
+ * Lines are written through a buffer to a temporary file next to the target; {@link #commit()}
+ * forces the temporary file to disk and renames it over the target. Closing without
+ * committing discards the temporary file and leaves the target untouched.
+ */
+public class AtomicFileWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path target;
+    private final Path temp;
+    private final FileOutputStream stream;
+    private final Writer out;
+    private boolean committed;
+
+    /**
+     * Starts writing a replacement for the given file.
+     *
+     * @param filePath the file to replace
+     * @throws IOException if the temporary file cannot be created
+     */
+    public AtomicFileWriter(String filePath) throws IOException {
+        this.target = Path.of(filePath).toAbsolutePath();
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        this.stream = new FileOutputStream(temp.toFile());
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Writes a line followed by the platform line separator.
+     *
+     * @param line the line to write
+     * @throws IOException if writing fails
+     */
+    public void println(String line) throws IOException {
+        out.write(line);
+        out.write(System.lineSeparator());
+    }
+
+    /**
+     * Forces the written contents to disk and atomically replaces the target file with them.
+     *
+     * @throws IOException if the contents cannot be made durable or the rename fails
+     */
+    public void commit() throws IOException {
+        out.flush();
+        stream.getFD().sync();
+        out.close();
+
+        replace(temp, target);
+        committed = true;
+    }
+
+    /**
+     * Atomically replaces a file with the given contents, forcing them to disk first.
+     *
+     * @param filePath the file to replace
+     * @param content  the new contents
+     * @throws IOException if the contents cannot be made durable or the rename fails
+     */
+    public static void write(String filePath, byte[] content) throws IOException {
+        Path target = Path.of(filePath).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temp.toFile())) {
+            stream.write(content);
+            stream.getFD().sync();
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        replace(temp, target);
+    }
+
+    /**
+     * Closes the writer, deleting the temporary file if the write was not committed.
+     *
+     * @throws IOException if the temporary file cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            try {
+                out.close();
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Renames a file over the target, atomically where the file system supports it,
+     * and makes the rename durable.
+     */
+    private static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target);
+    }
+
+    /**
+     * Makes the rename durable by syncing the parent directory.
+     * Not every platform allows directories to be opened, in which case this is skipped.
+     */
+    private static void syncDirectory(Path target) {
+        try (FileChannel dir = FileChannel.open(target.getParent(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Directory sync is unsupported on this platform; the rename is still atomic.
+        }
+    }
+}
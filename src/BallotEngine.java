@@ -0,0 +1,211 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+
+/**
+ * Allocates flats by ballot across all pending applications of a set of projects at once,
+ * instead of a manager deciding on each application in turn.
+ * Each project and flat type is balloted separately: its pending applications are
+ * put in NRIC order and winners are drawn one by one, until the units run out, with a
+ * {@link SplittableRandom} seeded from the ballot seed, the project name and the flat type,
+ * so running a ballot again with the same seed on the same applications draws the same
+ * winners. The ballots run in parallel; winners reserve a unit and become successful,
+ * the others become unsuccessful, and every decision is written to the journal as it is made.
+ *
+ * Applications whose withdrawal has been requested are left for the withdrawal queue.
+ * An application decided meanwhile by another session keeps that decision, and the unit
+ * drawn for it goes to the next entrant drawn instead.
+ */
+public class BallotEngine {
+    private final ApplicationStore applications;
+
+    /**
+     * Constructs a ballot engine over the given applications.
+     *
+     * @param applications store of all applications
+     */
+    public BallotEngine(ApplicationStore applications) {
+        this.applications = applications;
+    }
+
+    /**
+     * Outcome of the ballot of one project and flat type.
+     */
+    public static class Outcome {
+        private final Project project;
+        private final FlatType flatType;
+        private final int applicants;
+        private final int successful;
+        private final int unsuccessful;
+
+        Outcome(Project project, FlatType flatType, int applicants, int successful, int unsuccessful) {
+            this.project = project;
+            this.flatType = flatType;
+            this.applicants = applicants;
+            this.successful = successful;
+            this.unsuccessful = unsuccessful;
+        }
+
+        /**
+         * Returns the project balloted.
+         *
+         * @return the project
+         */
+        public Project getProject() {
+            return project;
+        }
+
+        /**
+         * Returns the flat type balloted.
+         *
+         * @return the flat type
+         */
+        public FlatType getFlatType() {
+            return flatType;
+        }
+
+        /**
+         * Returns the number of pending applications that took part in the ballot.
+         *
+         * @return the applicant count
+         */
+        public int getApplicants() {
+            return applicants;
+        }
+
+        /**
+         * Returns the number of applications made successful.
+         *
+         * @return the successful count
+         */
+        public int getSuccessful() {
+            return successful;
+        }
+
+        /**
+         * Returns the number of applications made unsuccessful.
+         *
+         * @return the unsuccessful count
+         */
+        public int getUnsuccessful() {
+            return unsuccessful;
+        }
+    }
+
+    /**
+     * Runs the ballot of every flat type of the given projects, in parallel.
+     *
+     * @param projects the projects to ballot
+     * @param seed     the ballot seed; the same seed draws the same winners
+     * @return the outcome of each project and flat type that had pending applications,
+     *         in project order
+     */
+    public List<Outcome> run(Collection<Project> projects, long seed) {
+        List<Outcome> outcomes = projects.stream()
+                .flatMap(project -> Arrays.stream(FlatType.values())
+                        .map(type -> new Ballot(project, type)))
+                .collect(Collectors.toList())
+                .parallelStream()
+                .map(ballot -> ballot.run(seed))
+                .filter(outcome -> outcome.getApplicants() > 0)
+                .collect(Collectors.toList());
+        for (Project project : projects) {
+            if (outcomes.stream().anyMatch(o -> o.getProject() == project && o.getSuccessful() > 0)) {
+                Journal.getInstance().recordProject(project);
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * The ballot of one project and flat type.
+     */
+    private final class Ballot {
+        private final Project project;
+        private final FlatType type;
+
+        Ballot(Project project, FlatType type) {
+            this.project = project;
+            this.type = type;
+        }
+
+        /**
+         * Draws entrants one at a time under the project's lock stripe, each reserving a
+         * unit, until the units run out; the entrants left over are unsuccessful.
+         */
+        Outcome run(long seed) {
+            List<Application> entrants = new ArrayList<>();
+            for (Application app : applications.findByProject(project, Application.Status.PENDING)) {
+                if (app.getFlatType() == type && !app.isWithdrawalRequested()) {
+                    entrants.add(app);
+                }
+            }
+            if (entrants.isEmpty()) {
+                return new Outcome(project, type, 0, 0, 0);
+            }
+            // NRICs differing only in case pack to the same key, so ties are broken on the NRIC itself.
+            entrants.sort(Comparator.comparingLong((Application app) -> app.getApplicant().getNricKey())
+                    .thenComparing(app -> app.getApplicant().getNric()));
+
+            int successful = 0;
+            int unsuccessful = 0;
+            FlatInventory inventory = project.getInventory();
+            SplittableRandom random = new SplittableRandom(seedFor(seed));
+            boolean unitsLeft = true;
+            Lock projectLock = LockStripes.PROJECTS.lock(LockStripes.key(project));
+            try {
+                for (int i = 0; i < entrants.size(); i++) {
+                    if (unitsLeft) {
+                        // Fisher-Yates step: draw the next entrant from those not yet drawn.
+                        int j = i + random.nextInt(entrants.size() - i);
+                        Application drawn = entrants.get(j);
+                        entrants.set(j, entrants.get(i));
+                        entrants.set(i, drawn);
+                    }
+                    Application app = entrants.get(i);
+                    boolean reserved = unitsLeft && inventory.tryReserve(type);
+                    unitsLeft = reserved;
+                    Application.Status decision = reserved
+                            ? Application.Status.SUCCESSFULAPPLY
+                            : Application.Status.UNSUCCESSFULAPPLY;
+                    if (!applications.contains(app)
+                            || !app.compareAndSetStatus(Application.Status.PENDING, decision)) {
+                        // Decided elsewhere meanwhile: its unit goes to the next entrant drawn.
+                        if (reserved) {
+                            inventory.release(type);
+                        }
+                        continue;
+                    }
+                    Journal.getInstance().recordApplication(app);
+                    if (reserved) {
+                        successful++;
+                    } else {
+                        unsuccessful++;
+                    }
+                }
+            } finally {
+                projectLock.unlock();
+            }
+            return new Outcome(project, type, entrants.size(), successful, unsuccessful);
+        }
+
+        /**
+         * Mixes the ballot seed with the project name and flat type, so each ballot
+         * draws independently of the others and of the order the ballots run in.
+         */
+        private long seedFor(long seed) {
+            long h = seed;
+            h = h * 31 + project.getName().toLowerCase(Locale.ROOT).hashCode();
+            h = h * 31 + type.ordinal();
+            return h * 0x9E3779B97F4A7C15L;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package src;
+
+/**
+ * Read-only view of the fields of the current CSV row.
+ * Instances are cursors that are reused for every row of a file, so callers
+ * must copy out any values they need before the next row is read.
+ */
+public interface CSVRow {
+
+    /**
+     * Returns the number of fields in the current row, including empty trailing fields.
+     *
+     * @return the field count
+     */
+    int size();
+
+    /**
+     * Returns the value of a field in the current row, with quoting and escapes removed.
+     *
+     * @param index zero-based field index
+     * @return the field value
+     * @throws IndexOutOfBoundsException if the row has no such field
+     */
+    String get(int index);
+}
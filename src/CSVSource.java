@@ -0,0 +1,26 @@
+package src;
+
+import java.io.IOException;
+
+/**
+ * A CSV row cursor that can be advanced through a file one row at a time.
+ * Implemented by the buffered {@link CSVTokenizer} and the memory-mapped {@link MappedCSVScanner}.
+ */
+public interface CSVSource extends CSVRow, AutoCloseable {
+
+    /**
+     * Advances to the next non-blank row.
+     *
+     * @return true if a row was read, false at end of input
+     * @throws IOException if reading the underlying file fails
+     */
+    boolean next() throws IOException;
+
+    /**
+     * Releases the underlying file.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    void close() throws IOException;
+}
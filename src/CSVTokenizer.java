@@ -0,0 +1,204 @@
+package src;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Streaming tokenizer for ';'-delimited files.
+ * Reads characters through a fixed-size buffer and exposes one row at a time
+ * through the {@link CSVRow} interface, so memory use does not grow with file size.
+ *
+ * Fields may be wrapped in double quotes, in which case delimiters and line breaks
+ * inside the quotes are kept and a doubled quote ("") stands for a single quote.
+ * Outside quotes, a semicolon can also be escaped as "\;". Blank lines are skipped.
+ */
+public class CSVTokenizer implements CSVSource {
+    private static final char DELIMITER = ';';
+    private static final char QUOTE = '"';
+    private static final char ESCAPE = '\\';
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+
+    private char[] rowChars = new char[256];
+    private int rowLength;
+    private int[] fieldEnds = new int[16];
+    private int fieldCount;
+
+    /**
+     * Constructs a tokenizer over the given reader.
+     *
+     * @param reader the source of characters
+     */
+    public CSVTokenizer(Reader reader) {
+        this(reader, 64 * 1024);
+    }
+
+    /**
+     * Constructs a tokenizer over the given reader with a custom buffer size.
+     *
+     * @param reader     the source of characters
+     * @param bufferSize number of characters read from the source at a time
+     */
+    public CSVTokenizer(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean next() throws IOException {
+        while (true) {
+            rowLength = 0;
+            fieldCount = 0;
+
+            int c = read();
+            if (c == -1) {
+                return false;
+            }
+            if (c == '\n') {
+                continue;
+            }
+            if (c == '\r') {
+                skipLineFeed();
+                continue;
+            }
+
+            readRow(c);
+            return true;
+        }
+    }
+
+    /**
+     * Parses the remainder of a row whose first character has already been read.
+     *
+     * @param c the first character of the row
+     * @throws IOException if the underlying reader fails
+     */
+    private void readRow(int c) throws IOException {
+        boolean atFieldStart = true;
+        boolean inQuotes = false;
+
+        while (true) {
+            if (inQuotes) {
+                if (c == -1) {
+                    endField();
+                    return;
+                }
+                if (c == QUOTE) {
+                    int following = read();
+                    if (following == QUOTE) {
+                        append(QUOTE);
+                    } else {
+                        inQuotes = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    append((char) c);
+                }
+            } else if (c == -1 || c == '\n') {
+                endField();
+                return;
+            } else if (c == '\r') {
+                skipLineFeed();
+                endField();
+                return;
+            } else if (c == DELIMITER) {
+                endField();
+                atFieldStart = true;
+                c = read();
+                continue;
+            } else if (c == QUOTE && atFieldStart) {
+                inQuotes = true;
+            } else if (c == ESCAPE) {
+                int following = read();
+                if (following != DELIMITER) {
+                    append(ESCAPE);
+                    atFieldStart = false;
+                    c = following;
+                    continue;
+                }
+                append(DELIMITER);
+            } else {
+                append((char) c);
+            }
+
+            atFieldStart = false;
+            c = read();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return fieldCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " of " + fieldCount);
+        }
+        int start = index == 0 ? 0 : fieldEnds[index - 1];
+        return new String(rowChars, start, fieldEnds[index] - start);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private void skipLineFeed() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return;
+            }
+        }
+        if (buffer[position] == '\n') {
+            position++;
+        }
+    }
+
+    private void append(char c) {
+        if (rowLength == rowChars.length) {
+            rowChars = Arrays.copyOf(rowChars, rowChars.length * 2);
+        }
+        rowChars[rowLength++] = c;
+    }
+
+    private void endField() {
+        if (fieldCount == fieldEnds.length) {
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldEnds.length * 2);
+        }
+        fieldEnds[fieldCount++] = rowLength;
+    }
+}
@@ -0,0 +1,71 @@
+package src;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks which persisted datasets have been modified since they were last saved,
+ * so that only changed CSV files need to be rewritten.
+ * Entities mark their dataset dirty whenever one of their persisted fields changes,
+ * and the code that adds or removes entities marks the dataset of that collection.
+ */
+public final class ChangeTracker {
+
+    /**
+     * The persisted datasets, one per CSV file written by the system.
+     */
+    public enum Dataset {
+        USERS, PROJECTS, APPLICATIONS, ENQUIRIES, REGISTRATIONS
+    }
+
+    private static final Map<Dataset, AtomicBoolean> dirty = new EnumMap<>(Dataset.class);
+
+    static {
+        for (Dataset dataset : Dataset.values()) {
+            dirty.put(dataset, new AtomicBoolean(false));
+        }
+    }
+
+    private ChangeTracker() {
+    }
+
+    /**
+     * Records that a dataset has been modified.
+     *
+     * @param dataset the modified dataset
+     */
+    public static void markDirty(Dataset dataset) {
+        dirty.get(dataset).set(true);
+    }
+
+    /**
+     * Checks whether a dataset has unsaved modifications.
+     *
+     * @param dataset the dataset to check
+     * @return true if the dataset was modified since it was last cleared
+     */
+    public static boolean isDirty(Dataset dataset) {
+        return dirty.get(dataset).get();
+    }
+
+    /**
+     * Clears the modified flag of a dataset, typically right before saving it.
+     * Modifications made after this call mark the dataset dirty again.
+     *
+     * @param dataset the dataset to clear
+     * @return true if the dataset had been modified
+     */
+    public static boolean clearDirty(Dataset dataset) {
+        return dirty.get(dataset).getAndSet(false);
+    }
+
+    /**
+     * Clears the modified flags of all datasets, e.g. after loading data from disk.
+     */
+    public static void clearAll() {
+        for (AtomicBoolean flag : dirty.values()) {
+            flag.set(false);
+        }
+    }
+}
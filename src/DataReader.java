@@ -1,37 +1,133 @@
 package src;
 
-import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * Abstract class that provides functionality to read data from CSV files.
- * Subclasses can use this method to populate objects from CSV rows.
+ * Subclasses can use these methods to populate objects from CSV rows.
  */
 public abstract class DataReader {
 
     /**
-     * Reads a CSV file and parses each line into a string array, using ';' as the delimiter.
+     * Strategy used to read a CSV file.
+     */
+    public enum ReadMode {
+        /** Read through a character buffer with {@link CSVTokenizer}. */
+        BUFFERED,
+        /** Map the file into memory and scan it with {@link MappedCSVScanner}. */
+        MAPPED,
+        /** Map files of at least {@link #MAPPED_THRESHOLD} bytes and buffer smaller ones. */
+        AUTO
+    }
+
+    /** Minimum file size, in bytes, for which {@link ReadMode#AUTO} maps the file. */
+    public static final long MAPPED_THRESHOLD = 1024 * 1024;
+
+    private ReadMode readMode = ReadMode.AUTO;
+
+    /**
+     * Callback invoked once for every data row of a CSV file.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+
+        /**
+         * Handles a single row. The row cursor is reused for the next row,
+         * so values must be copied out before returning.
+         *
+         * @param row      the fields of the current row
+         * @param rowIndex the 1-based index of the row, not counting the header
+         */
+        void handleRow(CSVRow row, int rowIndex);
+    }
+
+    /**
+     * Returns the strategy used to read CSV files.
+     *
+     * @return the read mode
+     */
+    public ReadMode getReadMode() {
+        return readMode;
+    }
+
+    /**
+     * Sets the strategy used to read CSV files.
+     *
+     * @param readMode the read mode
+     */
+    public void setReadMode(ReadMode readMode) {
+        this.readMode = readMode;
+    }
+
+    /**
+     * Streams the data rows of a CSV file to the given handler, skipping the header row.
+     * Rows are tokenized one at a time, so memory use stays constant regardless of file size.
      *
      * @param filePath the path to the CSV file
-     * @return a list of string arrays, each representing a row of values
+     * @param handler  the callback that receives each data row
      */
-    public List<String[]> readCSVFile(String filePath) {
-        List<String[]> data = new ArrayList<>();
-        String line;
-        String delimiter = ";";
-
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            while ((line = br.readLine()) != null) {
-                String[] fields = line.split(delimiter);
-                data.add(fields);
+    public void streamCSVFile(String filePath, RowHandler handler) {
+        try (CSVSource source = openCSVSource(filePath)) {
+            if (!source.next()) {
+                return;
+            }
+
+            int rowIndex = 1;
+            while (source.next()) {
+                handler.handleRow(source, rowIndex++);
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
+    }
 
-        return data;
+    /**
+     * Opens a row cursor over the given file according to the current read mode.
+     * Files too large to map fall back to buffered reading.
+     *
+     * @param filePath the path to the CSV file
+     * @return an open row cursor
+     * @throws IOException if the file cannot be opened
+     */
+    private CSVSource openCSVSource(String filePath) throws IOException {
+        if (readMode != ReadMode.BUFFERED) {
+            Path path = Path.of(filePath);
+            long size = Files.size(path);
+            boolean map = readMode == ReadMode.MAPPED || size >= MAPPED_THRESHOLD;
+            if (map && size <= Integer.MAX_VALUE) {
+                return new MappedCSVScanner(path);
+            }
+        }
+        return new CSVTokenizer(new FileReader(filePath, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Joins values into a single ';'-delimited row that the readers parse back into the same values.
+     * Values containing delimiters, quotes, backslashes or line breaks are wrapped in quotes,
+     * since outside quotes the readers take a leading quote as the start of a quoted value
+     * and a backslash before a delimiter as an escape.
+     *
+     * @param fields the values of the row
+     * @return the formatted row, without a line terminator
+     */
+    public static String formatCSVRow(String... fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append(';');
+            }
+            String field = fields[i];
+            if (field.indexOf(';') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\\') >= 0
+                    || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                line.append('"').append(field.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(field);
+            }
+        }
+        return line.toString();
     }
 }
@@ -0,0 +1,257 @@
+package src;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Writes modified datasets back to their CSV files, or to the binary snapshot
+ * when the system runs from one.
+ * Only datasets marked dirty in the {@link ChangeTracker} are written.
+ */
+public class DataSaver {
+    private final UserCSVLoader userLoader = new UserCSVLoader();
+    private final ProjectCSVLoader projectLoader = new ProjectCSVLoader();
+    private final EnquiryCSVLoader enquiryLoader = new EnquiryCSVLoader();
+    private final ApplicationCSVLoader applicationLoader = new ApplicationCSVLoader();
+    private final OfficerRegistrationCSVLoader registrationLoader = new OfficerRegistrationCSVLoader();
+    private final String snapshotPath;
+
+    /**
+     * Constructs a saver that writes datasets to their CSV files.
+     */
+    public DataSaver() {
+        this(null);
+    }
+
+    /**
+     * Constructs a saver that writes the whole data store to a snapshot file whenever
+     * any dataset is dirty, or to the CSV files if no snapshot path is given.
+     *
+     * @param snapshotPath path of the snapshot file, or null to save CSV files
+     */
+    public DataSaver(String snapshotPath) {
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * Saves every dirty dataset. A dataset that fails to save stays marked dirty.
+     *
+     * @param data the data to save
+     * @return true if every dirty dataset was saved successfully
+     */
+    public boolean saveDirty(DataStore data) {
+        if (snapshotPath != null) {
+            return saveDirtySnapshot(data);
+        }
+
+        boolean success = true;
+        for (ChangeTracker.Dataset dataset : ChangeTracker.Dataset.values()) {
+            if (ChangeTracker.clearDirty(dataset) && !save(dataset, data)) {
+                ChangeTracker.markDirty(dataset);
+                success = false;
+            }
+        }
+        return success;
+    }
+
+    /**
+     * Rewrites the snapshot if any dataset is dirty. If the write fails, the
+     * datasets stay marked dirty.
+     *
+     * @param data the data to save
+     * @return true if nothing was dirty or the snapshot was written successfully
+     */
+    private boolean saveDirtySnapshot(DataStore data) {
+        EnumSet<ChangeTracker.Dataset> saved = EnumSet.noneOf(ChangeTracker.Dataset.class);
+        for (ChangeTracker.Dataset dataset : ChangeTracker.Dataset.values()) {
+            if (ChangeTracker.clearDirty(dataset)) {
+                saved.add(dataset);
+            }
+        }
+        if (saved.isEmpty() || underStoreLocks(data, () -> new SnapshotFile().write(snapshotPath, data))) {
+            return true;
+        }
+        for (ChangeTracker.Dataset dataset : saved) {
+            ChangeTracker.markDirty(dataset);
+        }
+        return false;
+    }
+
+    /**
+     * Captures the current contents of every file that a dirty dataset is saved to, and
+     * clears the datasets' modified flags. Each store is captured while holding its lock, so
+     * other sessions cannot change it half-way. The captured contents do not refer to the
+     * live data, so they can be written by another thread while the data keeps changing.
+     *
+     * @param data the data to capture
+     * @return the files to write, empty if nothing was dirty
+     */
+    public List<DataFile> captureDirty(DataStore data) {
+        List<DataFile> files = new ArrayList<>();
+        if (snapshotPath != null) {
+            EnumSet<ChangeTracker.Dataset> captured = EnumSet.noneOf(ChangeTracker.Dataset.class);
+            for (ChangeTracker.Dataset dataset : ChangeTracker.Dataset.values()) {
+                if (ChangeTracker.clearDirty(dataset)) {
+                    captured.add(dataset);
+                }
+            }
+            if (!captured.isEmpty()) {
+                files.add(new DataFile(snapshotPath, underStoreLocks(data, () -> new SnapshotFile().toBytes(data)), captured));
+            }
+            return files;
+        }
+
+        for (ChangeTracker.Dataset dataset : ChangeTracker.Dataset.values()) {
+            if (!ChangeTracker.clearDirty(dataset)) {
+                continue;
+            }
+            switch (dataset) {
+                case USERS -> {
+                    files.add(capture(StartupLoader.APPLICANT_FILE, userLoader.formatUsersAsCSV(data.getApplicants()), dataset));
+                    files.add(capture(StartupLoader.OFFICER_FILE, userLoader.formatUsersAsCSV(data.getOfficers()), dataset));
+                    files.add(capture(StartupLoader.MANAGER_FILE, userLoader.formatUsersAsCSV(data.getManagers()), dataset));
+                }
+                case PROJECTS -> {
+                    ProjectCatalog projects = data.getProjects();
+                    synchronized (projects) {
+                        files.add(capture(StartupLoader.PROJECT_FILE, projectLoader.formatProjectsAsCSV(projects), dataset));
+                    }
+                }
+                case APPLICATIONS -> {
+                    ApplicationStore applications = data.getApplications();
+                    synchronized (applications) {
+                        files.add(capture(StartupLoader.APPLICATION_FILE,
+                                applicationLoader.formatApplicationsAsCSV(applications), dataset));
+                    }
+                }
+                case ENQUIRIES -> {
+                    EnquiryStore enquiries = data.getEnquiries();
+                    synchronized (enquiries) {
+                        files.add(capture(StartupLoader.ENQUIRY_FILE, enquiryLoader.formatEnquiriesAsCSV(enquiries), dataset));
+                    }
+                }
+                case REGISTRATIONS -> {
+                    RegistrationStore registrations = data.getRegistrations();
+                    synchronized (registrations) {
+                        files.add(capture(StartupLoader.REGISTRATION_FILE,
+                                registrationLoader.formatRegistrationsAsCSV(registrations), dataset));
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Runs a capture of the whole data store while holding the lock of every store, so
+     * the snapshot is consistent across stores. Store methods never call into another
+     * store, so taking the locks in this fixed order cannot deadlock.
+     */
+    private static <T> T underStoreLocks(DataStore data, Supplier<T> capture) {
+        synchronized (data.getProjects()) {
+            synchronized (data.getApplications()) {
+                synchronized (data.getRegistrations()) {
+                    synchronized (data.getEnquiries()) {
+                        return capture.get();
+                    }
+                }
+            }
+        }
+    }
+
+    private DataFile capture(String path, List<String> lines, ChangeTracker.Dataset dataset) {
+        StringBuilder content = new StringBuilder();
+        for (String line : lines) {
+            content.append(line).append(System.lineSeparator());
+        }
+        return new DataFile(path, content.toString().getBytes(StandardCharsets.UTF_8), EnumSet.of(dataset));
+    }
+
+    /**
+     * Writes a captured file. If the write fails, its datasets are marked dirty again.
+     *
+     * @param file the captured file
+     * @return true if the file was written successfully
+     */
+    public boolean write(DataFile file) {
+        try {
+            AtomicFileWriter.write(file.getPath(), file.getContent());
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to save " + file.getPath() + ":");
+            e.printStackTrace();
+            for (ChangeTracker.Dataset dataset : file.getDatasets()) {
+                ChangeTracker.markDirty(dataset);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Saves every dataset to its CSV file or files, whether or not it is dirty.
+     *
+     * @param data the data to save
+     * @return true if every dataset was saved successfully
+     */
+    public boolean saveAllToCSV(DataStore data) {
+        boolean success = true;
+        for (ChangeTracker.Dataset dataset : ChangeTracker.Dataset.values()) {
+            success &= save(dataset, data);
+        }
+        return success;
+    }
+
+    /**
+     * Saves a single dataset to its CSV file or files.
+     *
+     * @param dataset the dataset to save
+     * @param data    the data to save
+     * @return true if the dataset was saved successfully
+     */
+    public boolean save(ChangeTracker.Dataset dataset, DataStore data) {
+        return switch (dataset) {
+            case USERS -> userLoader.saveUserToCSV(StartupLoader.APPLICANT_FILE, data.getApplicants())
+                    & userLoader.saveUserToCSV(StartupLoader.OFFICER_FILE, data.getOfficers())
+                    & userLoader.saveUserToCSV(StartupLoader.MANAGER_FILE, data.getManagers());
+            case PROJECTS -> projectLoader.saveProjectsToCSV(StartupLoader.PROJECT_FILE, data.getProjects());
+            case APPLICATIONS -> applicationLoader.saveApplicationsToCSV(StartupLoader.APPLICATION_FILE, data.getApplications());
+            case ENQUIRIES -> enquiryLoader.saveEnquiriesToCSV(StartupLoader.ENQUIRY_FILE, data.getEnquiries());
+            case REGISTRATIONS -> registrationLoader.saveRegistrationsToCSV(StartupLoader.REGISTRATION_FILE, data.getRegistrations());
+        };
+    }
+
+    /**
+     * The captured contents of one data file, together with the datasets saved in it.
+     */
+    public static class DataFile {
+        private final String path;
+        private final byte[] content;
+        private final Set<ChangeTracker.Dataset> datasets;
+
+        DataFile(String path, byte[] content, Set<ChangeTracker.Dataset> datasets) {
+            this.path = path;
+            this.content = content;
+            this.datasets = datasets;
+        }
+
+        /** @return the path of the file. */
+        public String getPath() {
+            return path;
+        }
+
+        /** @return the contents to write. */
+        public byte[] getContent() {
+            return content;
+        }
+
+        /** @return the datasets saved in the file. */
+        public Set<ChangeTracker.Dataset> getDatasets() {
+            return datasets;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds all data loaded into the BTO system, shared by the controllers and UIs.
+ */
+public class DataStore {
+    private final List<User> users = new ArrayList<>();
+    private final List<Applicant> applicants = new ArrayList<>();
+    private final List<HDBOfficer> officers = new ArrayList<>();
+    private final List<HDBManager> managers = new ArrayList<>();
+    private final ProjectCatalog projects = new ProjectCatalog();
+    private final ApplicationStore applications = new ApplicationStore();
+    private final RegistrationStore registrations = new RegistrationStore();
+    private final EnquiryStore enquiries = new EnquiryStore();
+
+    /** @return all users of every role. */
+    public List<User> getUsers() {
+        return users;
+    }
+
+    /** @return all applicants. */
+    public List<Applicant> getApplicants() {
+        return applicants;
+    }
+
+    /** @return all HDB officers. */
+    public List<HDBOfficer> getOfficers() {
+        return officers;
+    }
+
+    /** @return all HDB managers. */
+    public List<HDBManager> getManagers() {
+        return managers;
+    }
+
+    /** @return all projects, indexed by name. */
+    public ProjectCatalog getProjects() {
+        return projects;
+    }
+
+    /** @return all applications, indexed by project, status and applicant. */
+    public ApplicationStore getApplications() {
+        return applications;
+    }
+
+    /** @return all officer registrations, indexed by officer. */
+    public RegistrationStore getRegistrations() {
+        return registrations;
+    }
+
+    /** @return all enquiries, indexed by ID, applicant and project. */
+    public EnquiryStore getEnquiries() {
+        return enquiries;
+    }
+}
@@ -2,26 +2,46 @@ package src;
 
 /**
  * Represents an enquiry submitted by an applicant regarding a specific project.
- * Each enquiry is assigned a unique ID and can contain a reply.
+ * Each enquiry has a unique ID, allocated by the {@link EnquiryStore}, and can contain a reply.
  */
 public class Enquiry {
-    private static int idCounter = 1;
-    private int id;
+
+    /**
+     * Listener notified whenever the reply to an enquiry changes.
+     */
+    public interface ReplyListener {
+        /**
+         * Called after the reply to an enquiry has changed.
+         *
+         * @param enquiry  the enquiry
+         * @param oldReply the reply before the change
+         */
+        void replyChanged(Enquiry enquiry, String oldReply);
+    }
+
+    private final int id;
+    private final Applicant owner;
     private String content;
     private Project project;
     private String reply;
+    private ReplyListener replyListener;
 
     /**
-     * Constructs a new Enquiry object.
+     * Constructs a new Enquiry object. New enquiries should be created through
+     * {@link EnquiryStore#create} so that they get a fresh ID.
      *
-     * @param content the enquiry message content
+     * @param id      the unique ID of the enquiry
+     * @param owner   the applicant who submitted the enquiry
      * @param project the project this enquiry is associated with
+     * @param content the enquiry message content
+     * @param reply   the reply, or an empty string if not replied to
      */
-    public Enquiry(String content, Project project) {
-        this.id = idCounter++;
+    public Enquiry(int id, Applicant owner, Project project, String content, String reply) {
+        this.id = id;
+        this.owner = owner;
         this.content = content;
         this.project = project;
-        this.reply = "";
+        this.reply = reply;
     }
 
     /**
@@ -49,6 +69,7 @@ public class Enquiry {
      */
     public void setContent(String newContent) {
         this.content = newContent;
+        ChangeTracker.markDirty(ChangeTracker.Dataset.ENQUIRIES);
     }
 
     /**
@@ -60,6 +81,15 @@ public class Enquiry {
         return project;
     }
 
+    /**
+     * Returns the applicant who submitted the enquiry.
+     *
+     * @return the owner
+     */
+    public Applicant getOwner() {
+        return owner;
+    }
+
     /**
      * Returns the reply to the enquiry.
      *
@@ -75,7 +105,21 @@ public class Enquiry {
      * @param reply the reply content
      */
     public void setReply(String reply) {
+        String oldReply = this.reply;
         this.reply = reply;
+        ChangeTracker.markDirty(ChangeTracker.Dataset.ENQUIRIES);
+        if (replyListener != null && !oldReply.equals(reply)) {
+            replyListener.replyChanged(this, oldReply);
+        }
+    }
+
+    /**
+     * Sets the listener notified of reply changes, replacing any previous one.
+     *
+     * @param listener the listener, or null for none
+     */
+    void setReplyListener(ReplyListener listener) {
+        this.replyListener = listener;
     }
 
     /**
@@ -1,150 +1,141 @@
 package src;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * EnquiryCSVLoader is responsible for reading enquiry data from a CSV file
- * and saving enquiry data back into a CSV file. It uses helper methods to
- * find matching applicants and projects and to format enquiries.
+ * into an {@link EnquiryStore} and saving the store back into a CSV file.
+ * It uses a {@link SymbolTable} to find matching applicants and projects.
+ * Rows in the older layout without an ID column are still read, and are given
+ * new IDs after the rest of the file has been loaded.
  */
 public class EnquiryCSVLoader extends DataReader {
 
     /**
-     * Loads enquiries from a CSV file and adds them to the matching applicants.
+     * Loads enquiries from a CSV file into the enquiry store.
      *
      * @param filePath   the path of the CSV file
-     * @param projects   the list of projects available
-     * @param applicants the list of applicants
-     * @return a list of enquiries parsed from the file
+     * @param symbols    the symbol table of loaded applicants and projects
+     * @param store      the store to add the enquiries to
+     * @return the number of enquiries loaded
      */
-    public List<Enquiry> loadEnquiriesFromCSV(String filePath, List<Project> projects, List<Applicant> applicants) {
-        List<Enquiry> enquiries = new ArrayList<>();
-        List<String[]> rows = readCSVFile(filePath);
-
-        for (int i = 1; i < rows.size(); i++) { // Skip header
-            String[] row = rows.get(i);
+    public int loadEnquiriesFromCSV(String filePath, SymbolTable symbols, EnquiryStore store) {
+        List<String[]> unnumbered = new ArrayList<>();
+        int[] loaded = {0};
+        streamCSVFile(filePath, (row, i) -> {
             try {
-                Enquiry enquiry = parseEnquiryRow(row, projects, applicants);
-                if (enquiry != null) {
-                    enquiries.add(enquiry);
+                if (!hasId(row)) {
+                    unnumbered.add(new String[] {row.get(0), row.get(1), row.get(2),
+                            row.size() > 3 ? row.get(3) : ""});
+                } else if (addEnquiry(row.get(0), row.get(1), row.get(2), row.get(3),
+                        row.size() > 4 ? row.get(4) : "", symbols, store)) {
+                    loaded[0]++;
                 }
             } catch (Exception e) {
                 System.err.println("Error parsing row " + i);
                 e.printStackTrace();
             }
+        });
+        for (String[] row : unnumbered) {
+            if (addEnquiry(null, row[0], row[1], row[2], row[3], symbols, store)) {
+                loaded[0]++;
+            }
         }
-        return enquiries;
+        return loaded[0];
     }
 
     /**
-     * Saves all enquiries associated with the provided applicants to a CSV file.
+     * Saves all enquiries in the store to a CSV file.
      *
-     * @param filePath   the destination CSV file path
-     * @param applicants the list of applicants whose enquiries are to be saved
+     * @param filePath the destination CSV file path
+     * @param store    the enquiries to save
+     * @return true if the file was written successfully
      */
-    public void saveEnquiriesToCSV(String filePath, List<Applicant> applicants) {
-        try (PrintWriter out = new PrintWriter(new FileWriter(filePath))) {
-            out.println("Applicant;ProjectID;Content;Reply");
-
-            for (Applicant applicant : applicants) {
-                for (Enquiry enquiry : applicant.getEnquiries()) {
-                    out.println(formatEnquiryAsCSV(applicant, enquiry));
-                }
+    public boolean saveEnquiriesToCSV(String filePath, EnquiryStore store) {
+        try (AtomicFileWriter out = new AtomicFileWriter(filePath)) {
+            for (String line : formatEnquiriesAsCSV(store)) {
+                out.println(line);
             }
+            out.commit();
             System.out.println("Enquiries saved successfully to " + filePath);
+            return true;
         } catch (IOException e) {
             System.err.println("Failed to save enquiries:");
             e.printStackTrace();
+            return false;
         }
     }
 
     /**
-     * Parses a row of data and constructs a new Enquiry object.
+     * Formats all enquiries in the store as CSV lines, starting with the header.
      *
-     * @param row        the row data from the CSV
-     * @param projects   the list of projects
-     * @param applicants the list of applicants
-     * @return the constructed Enquiry object or null if not found
+     * @param store the enquiries to format
+     * @return the lines of the CSV file
      */
-    private Enquiry parseEnquiryRow(String[] row, List<Project> projects, List<Applicant> applicants) {
-        String applicantNric = row[0].trim();
-        String projectId = row[1].trim();
-        String content = row[2].trim();
-        String reply = row.length > 3 ? row[3].trim() : "";
-
-        Applicant applicant = findApplicantByNric(applicants, applicantNric);
-        Project project = findProjectById(projects, projectId);
-
-        if (applicant == null || project == null) {
-            System.err.println("Skipping enquiry - applicant or project not found");
-            return null;
+    public List<String> formatEnquiriesAsCSV(EnquiryStore store) {
+        List<String> lines = new ArrayList<>();
+        lines.add("ID;Applicant;ProjectID;Content;Reply");
+        for (Enquiry enquiry : store.getAll()) {
+            lines.add(formatEnquiryAsCSV(enquiry));
         }
-
-        Enquiry enquiry = new Enquiry(content, project);
-        enquiry.setReply(reply);
-        applicant.addEnquiry(enquiry);
-        return enquiry;
+        return lines;
     }
 
     /**
-     * Formats a single enquiry as a CSV line.
+     * Resolves the fields of an enquiry row and adds the enquiry to the store.
      *
-     * @param applicant the applicant who submitted the enquiry
-     * @param enquiry   the enquiry to format
-     * @return formatted CSV string
+     * @param id            the enquiry ID, or null to allocate a new one
+     * @param applicantNric the NRIC of the applicant who submitted the enquiry
+     * @param projectId     the name of the project
+     * @param content       the enquiry message
+     * @param reply         the reply, possibly empty
+     * @param symbols       the symbol table of loaded applicants and projects
+     * @param store         the store to add the enquiry to
+     * @return true if the enquiry was added, false if its applicant or project was not found
      */
-    private String formatEnquiryAsCSV(Applicant applicant, Enquiry enquiry) {
-        return String.join(";",
-            applicant.getNric(),
-            enquiry.getProject().getName(),
-            escapeSemicolons(enquiry.getContent()),
-            escapeSemicolons(enquiry.getReply())
-        );
-    }
+    private boolean addEnquiry(String id, String applicantNric, String projectId, String content,
+                               String reply, SymbolTable symbols, EnquiryStore store) {
+        Applicant applicant = symbols.findApplicant(applicantNric.trim());
+        Project project = symbols.findProject(projectId.trim());
 
-    /**
-     * Escapes semicolons to prevent corruption in CSV fields.
-     *
-     * @param text the input string
-     * @return escaped string
-     */
-    private String escapeSemicolons(String text) {
-        return text.replace(";", ",");
+        if (applicant == null || project == null) {
+            System.err.println("Skipping enquiry - applicant or project not found");
+            return false;
+        }
+
+        if (id == null) {
+            Enquiry enquiry = store.create(applicant, project, content.trim());
+            enquiry.setReply(reply.trim());
+        } else {
+            store.add(new Enquiry(Integer.parseInt(id.trim()), applicant, project, content.trim(), reply.trim()));
+        }
+        return true;
     }
 
     /**
-     * Finds an applicant by NRIC.
-     *
-     * @param applicants the list of applicants
-     * @param nric       the NRIC to search
-     * @return the matched Applicant or null
+     * Checks whether a row starts with an ID column. NRICs always start with a letter,
+     * so rows in the older layout never do.
      */
-    private Applicant findApplicantByNric(List<Applicant> applicants, String nric) {
-        for (Applicant a : applicants) {
-            if (a.getNric().equals(nric)) {
-                return a;
-            }
-        }
-        return null;
+    private static boolean hasId(CSVRow row) {
+        String first = row.get(0).trim();
+        return row.size() > 3 && !first.isEmpty() && Character.isDigit(first.charAt(0));
     }
 
     /**
-     * Finds a project by name (used as ID).
+     * Formats a single enquiry as a CSV line.
      *
-     * @param projects  the list of projects
-     * @param projectId the project name to search
-     * @return the matched Project or null
+     * @param enquiry the enquiry to format
+     * @return formatted CSV string
      */
-    private Project findProjectById(List<Project> projects, String projectId) {
-        for (Project p : projects) {
-            if (p.getName().equals(projectId)) {
-                return p;
-            }
-        }
-        return null;
+    private String formatEnquiryAsCSV(Enquiry enquiry) {
+        return formatCSVRow(
+            String.valueOf(enquiry.getId()),
+            enquiry.getOwner().getNric(),
+            enquiry.getProject().getName(),
+            enquiry.getContent(),
+            enquiry.getReply()
+        );
     }
 }
@@ -7,6 +7,16 @@ import java.util.List;
  * Includes functionality to submit, view, edit, and delete enquiries.
  */
 public class EnquiryController {
+    private final EnquiryStore store;
+
+    /**
+     * Constructs the controller over the store of all enquiries.
+     *
+     * @param store the enquiry store that enquiries are submitted to and deleted from
+     */
+    public EnquiryController(EnquiryStore store) {
+        this.store = store;
+    }
 
     /**
      * Submits a new enquiry from an applicant regarding a specific project.
@@ -16,8 +26,8 @@ public class EnquiryController {
      * @param content   the enquiry message content
      */
     public void submitEnquiry(Applicant applicant, Project project, String content) {
-        Enquiry enquiry = new Enquiry(content, project);
-        applicant.addEnquiry(enquiry);
+        Enquiry enquiry = store.create(applicant, project, content);
+        Journal.getInstance().recordEnquiryAdded(enquiry);
         System.out.println("Enquiry submitted for project: " + project.getName());
     }
 
@@ -27,7 +37,7 @@ public class EnquiryController {
      * @param applicant the applicant whose enquiries are to be viewed
      */
     public void viewMyEnquiries(Applicant applicant) {
-        List<Enquiry> enquiries = applicant.getEnquiries();
+        List<Enquiry> enquiries = store.findByApplicant(applicant.getNric());
         if (enquiries.isEmpty()) {
             System.out.println("No enquiries submitted.");
             return;
@@ -46,31 +56,38 @@ public class EnquiryController {
      * @param newContent  the new content/message for the enquiry
      */
     public void editEnquiry(Applicant applicant, int id, String newContent) {
-        for (Enquiry e : applicant.getEnquiries()) {
-            if (e.getId() == id) {
-                e.setContent(newContent);
-                System.out.println("Enquiry updated.");
-                return;
-            }
+        Enquiry e = findOwned(applicant, id);
+        if (e == null) {
+            System.out.println("Enquiry ID not found.");
+            return;
         }
-        System.out.println("Enquiry ID not found.");
+        e.setContent(newContent);
+        Journal.getInstance().recordEnquiryEdited(e);
+        System.out.println("Enquiry updated.");
     }
 
     /**
-     * Deletes an enquiry from the applicant's list by ID.
+     * Deletes an enquiry submitted by the applicant by ID.
      *
      * @param applicant the applicant whose enquiry is to be deleted
      * @param id        the ID of the enquiry to delete
      */
     public void deleteEnquiry(Applicant applicant, int id) {
-        List<Enquiry> list = applicant.getEnquiries();
-        for (int i = 0; i < list.size(); i++) {
-            if (list.get(i).getId() == id) {
-                list.remove(i);
-                System.out.println("Enquiry deleted.");
-                return;
-            }
+        Enquiry e = findOwned(applicant, id);
+        if (e == null) {
+            System.out.println("Enquiry ID not found.");
+            return;
         }
-        System.out.println("Enquiry ID not found.");
+        Journal.getInstance().recordEnquiryDeleted(e);
+        store.remove(id);
+        System.out.println("Enquiry deleted.");
+    }
+
+    /**
+     * Finds an enquiry by ID, provided it was submitted by the given applicant.
+     */
+    private Enquiry findOwned(Applicant applicant, int id) {
+        Enquiry e = store.find(id);
+        return e != null && e.getOwner() == applicant ? e : null;
     }
 }
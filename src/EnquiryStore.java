@@ -0,0 +1,202 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The store of all enquiries, indexed by ID, by packed applicant NRIC and by project,
+ * with a sub-index of the enquiries in each project that have not been replied to yet.
+ * Enquiries are loaded into, saved from and edited through this store only.
+ * IDs are allocated from an atomic sequence that resumes after the highest ID loaded,
+ * so an ID stays the same across launches and is never handed out twice.
+ * The store listens for replies on the enquiries it holds, so the unreplied
+ * sub-index stays consistent.
+ */
+public class EnquiryStore implements Enquiry.ReplyListener {
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final Map<Integer, Enquiry> byId = new LinkedHashMap<>();
+    private final LongHashMap<Set<Enquiry>> byApplicant = new LongHashMap<>();
+    private final Map<Project, Set<Enquiry>> byProject = new HashMap<>();
+    private final Map<Project, Set<Enquiry>> unrepliedByProject = new HashMap<>();
+
+    /**
+     * Creates a new enquiry with the next free ID and adds it to the store.
+     *
+     * @param owner   the applicant submitting the enquiry
+     * @param project the project the enquiry is about
+     * @param content the enquiry message
+     * @return the new enquiry
+     */
+    public Enquiry create(Applicant owner, Project project, String content) {
+        Enquiry enquiry = new Enquiry(nextId.getAndIncrement(), owner, project, content, "");
+        add(enquiry);
+        ChangeTracker.markDirty(ChangeTracker.Dataset.ENQUIRIES);
+        return enquiry;
+    }
+
+    /**
+     * Adds an enquiry that already has an ID, replacing any enquiry with the same ID.
+     * The ID sequence is moved past the enquiry's ID.
+     *
+     * @param enquiry the enquiry to add
+     */
+    public synchronized void add(Enquiry enquiry) {
+        Enquiry old = byId.put(enquiry.getId(), enquiry);
+        if (old != null) {
+            unindex(old);
+        }
+        byApplicant.computeIfAbsent(enquiry.getOwner().getNricKey(), k -> new LinkedHashSet<>()).add(enquiry);
+        byProject.computeIfAbsent(enquiry.getProject(), p -> new LinkedHashSet<>()).add(enquiry);
+        if (enquiry.getReply().isEmpty()) {
+            unrepliedByProject.computeIfAbsent(enquiry.getProject(), p -> new LinkedHashSet<>()).add(enquiry);
+        }
+        enquiry.setReplyListener(this);
+        advancePast(enquiry.getId());
+    }
+
+    /**
+     * Finds an enquiry by ID.
+     *
+     * @param id the enquiry ID
+     * @return the matching enquiry, or null if not found
+     */
+    public synchronized Enquiry find(int id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Removes an enquiry by ID.
+     *
+     * @param id the enquiry ID
+     * @return the removed enquiry, or null if not found
+     */
+    public synchronized Enquiry remove(int id) {
+        Enquiry enquiry = byId.remove(id);
+        if (enquiry != null) {
+            unindex(enquiry);
+            ChangeTracker.markDirty(ChangeTracker.Dataset.ENQUIRIES);
+        }
+        return enquiry;
+    }
+
+    /**
+     * Returns every enquiry, in the order they were added.
+     *
+     * @return a snapshot of all enquiries
+     */
+    public synchronized List<Enquiry> getAll() {
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Returns the number of enquiries in the store.
+     *
+     * @return the enquiry count
+     */
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * Returns the enquiries submitted by the applicant with the given NRIC.
+     *
+     * @param nric the applicant's NRIC, in any case
+     * @return a snapshot of the matching enquiries
+     */
+    public synchronized List<Enquiry> findByApplicant(String nric) {
+        Set<Enquiry> enquiries = byApplicant.get(NricCodec.encode(nric));
+        return enquiries == null ? new ArrayList<>() : new ArrayList<>(enquiries);
+    }
+
+    /**
+     * Returns the enquiries about any of the given projects, grouped by project in the given order.
+     *
+     * @param projects the projects to look up
+     * @return a snapshot of the matching enquiries
+     */
+    public synchronized List<Enquiry> findByProjects(Collection<Project> projects) {
+        return collect(byProject, projects);
+    }
+
+    /**
+     * Returns the enquiries about any of the given projects that have not been replied to.
+     *
+     * @param projects the projects to look up
+     * @return a snapshot of the matching enquiries
+     */
+    public synchronized List<Enquiry> findUnrepliedByProjects(Collection<Project> projects) {
+        return collect(unrepliedByProject, projects);
+    }
+
+    /**
+     * Returns the ID the next created enquiry will get.
+     *
+     * @return the next ID
+     */
+    public int getNextId() {
+        return nextId.get();
+    }
+
+    /**
+     * Moves the ID sequence forward so that no ID below the given one is handed out.
+     * Used to restore the sequence saved with the enquiries, which may be past the
+     * highest remaining ID if the last enquiries were deleted.
+     *
+     * @param id the lowest ID the sequence may hand out
+     */
+    public void setNextId(int id) {
+        nextId.accumulateAndGet(id, Math::max);
+    }
+
+    /**
+     * Moves an enquiry in or out of the unreplied sub-index when its reply changes.
+     *
+     * @param enquiry  the enquiry that was replied to
+     * @param oldReply the reply before the change
+     */
+    @Override
+    public synchronized void replyChanged(Enquiry enquiry, String oldReply) {
+        if (enquiry.getReply().isEmpty()) {
+            unrepliedByProject.computeIfAbsent(enquiry.getProject(), p -> new LinkedHashSet<>()).add(enquiry);
+        } else {
+            removeFrom(unrepliedByProject, enquiry.getProject(), enquiry);
+        }
+    }
+
+    private void advancePast(int id) {
+        setNextId(id + 1);
+    }
+
+    private void unindex(Enquiry enquiry) {
+        long owner = enquiry.getOwner().getNricKey();
+        Set<Enquiry> owned = byApplicant.get(owner);
+        if (owned != null && owned.remove(enquiry) && owned.isEmpty()) {
+            byApplicant.remove(owner);
+        }
+        removeFrom(byProject, enquiry.getProject(), enquiry);
+        removeFrom(unrepliedByProject, enquiry.getProject(), enquiry);
+        enquiry.setReplyListener(null);
+    }
+
+    private static List<Enquiry> collect(Map<Project, Set<Enquiry>> index, Collection<Project> projects) {
+        List<Enquiry> matches = new ArrayList<>();
+        for (Project project : projects) {
+            matches.addAll(index.getOrDefault(project, Set.of()));
+        }
+        return matches;
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Enquiry>> index, K key, Enquiry enquiry) {
+        Set<Enquiry> enquiries = index.get(key);
+        if (enquiries != null && enquiries.remove(enquiry) && enquiries.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package src;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Unit counts of one project, per flat type, that can be updated from several threads
+ * without locking and without losing updates.
+ * A unit is taken off the available count when an application for it is approved
+ * ({@link #tryReserve}), which can never take the count below zero. The reservation is
+ * then either turned into a sale when the flat is booked ({@link #commit}) or given
+ * back when the application is withdrawn ({@link #release}). Counters are indexed by
+ * {@link FlatType} ordinal and updated with compare-and-set.
+ *
+ * Only the available counts are persisted. Reservation counts are rebuilt from the
+ * successful applications when the data is loaded.
+ */
+public class FlatInventory {
+    private final AtomicIntegerArray available = new AtomicIntegerArray(FlatType.values().length);
+    private final AtomicIntegerArray reserved = new AtomicIntegerArray(FlatType.values().length);
+    private final Runnable onAvailableChanged;
+
+    /**
+     * Constructs an inventory with no units.
+     *
+     * @param onAvailableChanged called after an available count changes
+     */
+    public FlatInventory(Runnable onAvailableChanged) {
+        this.onAvailableChanged = onAvailableChanged;
+    }
+
+    /**
+     * Returns the number of units of a flat type that can still be reserved.
+     *
+     * @param type the flat type
+     * @return the available count
+     */
+    public int getAvailable(FlatType type) {
+        return available.get(type.ordinal());
+    }
+
+    /**
+     * Returns the number of units of a flat type reserved by approved applications
+     * that have not been booked yet.
+     *
+     * @param type the flat type
+     * @return the reserved count
+     */
+    public int getReserved(FlatType type) {
+        return reserved.get(type.ordinal());
+    }
+
+    /**
+     * Sets the number of available units of a flat type, as when a manager edits a project.
+     *
+     * @param type  the flat type
+     * @param count the new available count
+     */
+    public void setAvailable(FlatType type, int count) {
+        available.set(type.ordinal(), count);
+        onAvailableChanged.run();
+    }
+
+    /**
+     * Reserves a unit of a flat type if one is available.
+     *
+     * @param type the flat type
+     * @return true if a unit was reserved, false if none was available
+     */
+    public boolean tryReserve(FlatType type) {
+        int i = type.ordinal();
+        int count;
+        do {
+            count = available.get(i);
+            if (count <= 0) {
+                return false;
+            }
+        } while (!available.compareAndSet(i, count, count - 1));
+        reserved.incrementAndGet(i);
+        onAvailableChanged.run();
+        return true;
+    }
+
+    /**
+     * Turns a reservation of a unit of a flat type into a sale. The available count
+     * is not changed, since the unit was taken off it when it was reserved.
+     *
+     * @param type the flat type
+     */
+    public void commit(FlatType type) {
+        decrementReserved(type.ordinal());
+    }
+
+    /**
+     * Gives a reserved unit of a flat type back to the available units.
+     *
+     * @param type the flat type
+     */
+    public void release(FlatType type) {
+        decrementReserved(type.ordinal());
+        available.incrementAndGet(type.ordinal());
+        onAvailableChanged.run();
+    }
+
+    /**
+     * Gives a sold unit of a flat type back to the available units, as when a booked
+     * application is withdrawn.
+     *
+     * @param type the flat type
+     */
+    public void returnSold(FlatType type) {
+        available.incrementAndGet(type.ordinal());
+        onAvailableChanged.run();
+    }
+
+    /**
+     * Counts a reservation made before the data was loaded, without changing the
+     * available count, which already excludes it.
+     *
+     * @param type the flat type
+     */
+    public void restoreReservation(FlatType type) {
+        reserved.incrementAndGet(type.ordinal());
+    }
+
+    /**
+     * Decrements a reservation count without going below zero.
+     */
+    private void decrementReserved(int i) {
+        int count;
+        do {
+            count = reserved.get(i);
+            if (count <= 0) {
+                return;
+            }
+        } while (!reserved.compareAndSet(i, count, count - 1));
+    }
+}
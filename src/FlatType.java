@@ -7,10 +7,43 @@ public enum FlatType {
     /**
      * Represents a 2-room flat.
      */
-    TWO_ROOM,
+    TWO_ROOM("2-Room"),
 
     /**
      * Represents a 3-room flat.
      */
-    THREE_ROOM
+    THREE_ROOM("3-Room");
+
+    private final String label;
+
+    FlatType(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the name of the flat type shown to users.
+     *
+     * @return the label, such as "2-Room"
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns the bit representing this flat type in a set of flat types.
+     *
+     * @return the bitmask with only this flat type set
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Returns the bitmask with every flat type set.
+     *
+     * @return the bitmask of all flat types
+     */
+    public static int allMask() {
+        return (1 << values().length) - 1;
+    }
 }
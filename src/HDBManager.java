@@ -1,6 +1,5 @@
 package src;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
@@ -56,7 +55,7 @@ public class HDBManager extends User {
     /**
      * Displays only the projects managed by this manager.
      */
-    public void viewMyProjects(List<Project> allProjects) {
+    public void viewMyProjects(ProjectCatalog allProjects) {
         System.out.println("\n== Projects You Manage ==");
         List<Project> myProjects = projectService.getManagerProjects(allProjects, this.getNric());
         if (myProjects.isEmpty()) {
@@ -72,7 +71,7 @@ public class HDBManager extends User {
     /**
      * Allows the manager to edit flat unit counts of a project.
      */
-    public void editProject(Scanner sc, List<Project> allProjects) {
+    public void editProject(Scanner sc, ProjectCatalog allProjects) {
         List<Project> myProjects = projectService.getManagerProjects(allProjects, this.getNric());
         if (myProjects.isEmpty()) {
             System.out.println("You have no projects to edit.");
@@ -87,13 +86,14 @@ public class HDBManager extends User {
         p.setFlatUnits(FlatType.TWO_ROOM, Integer.parseInt(sc.nextLine()));
         System.out.print("New 3-room unit count: ");
         p.setFlatUnits(FlatType.THREE_ROOM, Integer.parseInt(sc.nextLine()));
+        Journal.getInstance().recordProject(p);
         System.out.println("Project updated.");
     }
 
     /**
      * Deletes a project managed by this manager only if it has no pending applications.
      */
-    public void deleteProject(Scanner sc, List<Project> allProjects, List<Application> apps) {
+    public void deleteProject(Scanner sc, ProjectCatalog allProjects, ApplicationStore apps) {
         List<Project> myProjects = projectService.getManagerProjects(allProjects, this.getNric());
         if (myProjects.isEmpty()) {
             System.out.println("You have no projects to delete.");
@@ -103,22 +103,23 @@ public class HDBManager extends User {
         int idx = selectProject(sc, myProjects);
         if (idx == -1) return;
         Project p = myProjects.get(idx);
-        for (Application app : apps) {
-            if (app.getProject() == p && app.getAction().equalsIgnoreCase("Application")
-                    && app.getStatus() == Application.Status.PENDING) {
+        for (Application app : apps.findByProject(p, Application.Status.PENDING)) {
+            if (app.getAction().equalsIgnoreCase("Application")) {
                 System.out.println("Unable to delete the Project, pending applications");
                 return;
             }
         }
 
         allProjects.remove(p);
+        ChangeTracker.markDirty(ChangeTracker.Dataset.PROJECTS);
+        Journal.getInstance().recordProjectDeleted(p);
         System.out.println("Project deleted.");
     }
 
     /**
      * Allows the manager to toggle the visibility of a project.
      */
-    public void toggleProjectVisibility(Scanner sc, List<Project> allProjects) {
+    public void toggleProjectVisibility(Scanner sc, ProjectCatalog allProjects) {
         List<Project> myProjects = projectService.getManagerProjects(allProjects, this.getNric());
         if (myProjects.isEmpty()) {
             System.out.println("You have no projects to toggle.");
@@ -130,25 +131,26 @@ public class HDBManager extends User {
 
         Project p = myProjects.get(idx);
         projectService.toggleVisibility(p);
+        Journal.getInstance().recordProject(p);
         System.out.println("Visibility toggled. Now: " + p.isVisible());
     }
 
     /**
      * Displays all enquiries submitted by applicants.
+     *
+     * @param enquiries the store of all enquiries
      */
-    public void viewAllEnquiries(List<Applicant> applicants) {
+    public void viewAllEnquiries(EnquiryStore enquiries) {
         System.out.println("\n== All Enquiries ==");
         boolean found = false;
 
-        for (Applicant a : applicants) {
-            for (Enquiry e : a.getEnquiries()) {
-                found = true;
-                System.out.println("From: " + a.getNric());
-                System.out.println("Project: " + e.getProject().getName());
-                System.out.println("Enquiry: " + e.getContent());
-                System.out.println("Reply: " + (e.getReply().isEmpty() ? "(no reply yet)" : e.getReply()));
-                System.out.println("----------------------------------");
-            }
+        for (Enquiry e : enquiries.getAll()) {
+            found = true;
+            System.out.println("From: " + e.getOwner().getNric());
+            System.out.println("Project: " + e.getProject().getName());
+            System.out.println("Enquiry: " + e.getContent());
+            System.out.println("Reply: " + (e.getReply().isEmpty() ? "(no reply yet)" : e.getReply()));
+            System.out.println("----------------------------------");
         }
 
         if (!found) {
@@ -159,19 +161,9 @@ public class HDBManager extends User {
     /**
      * Displays and allows replying to enquiries related to projects managed by this manager.
      */
-    public void viewEnquiriesOfMyProjects(List<Applicant> applicants, List<Project> allProjects, Scanner sc) {
+    public void viewEnquiriesOfMyProjects(EnquiryStore enquiries, ProjectCatalog allProjects, Scanner sc) {
         List<Project> myProjects = projectService.getManagerProjects(allProjects, this.getNric());
-        List<Enquiry> relevantEnquiries = new ArrayList<>();
-        List<Applicant> relatedApplicants = new ArrayList<>();
-
-        for (Applicant a : applicants) {
-            for (Enquiry e : a.getEnquiries()) {
-                if (myProjects.contains(e.getProject())) {
-                    relevantEnquiries.add(e);
-                    relatedApplicants.add(a);
-                }
-            }
-        }
+        List<Enquiry> relevantEnquiries = enquiries.findByProjects(myProjects);
 
         if (relevantEnquiries.isEmpty()) {
             System.out.println("No enquiries found for your projects.");
@@ -179,9 +171,10 @@ public class HDBManager extends User {
         }
 
         System.out.println("\n== Enquiries for Your Projects ==");
+        System.out.println(enquiries.findUnrepliedByProjects(myProjects).size() + " awaiting reply");
         for (int i = 0; i < relevantEnquiries.size(); i++) {
             Enquiry e = relevantEnquiries.get(i);
-            Applicant a = relatedApplicants.get(i);
+            Applicant a = e.getOwner();
             System.out.printf("%d. From: %s | Project: %s\n", i + 1, a.getNric(), e.getProject().getName());
             System.out.println("   Enquiry: " + e.getContent());
             System.out.println("   Reply: " + (e.getReply().isEmpty() ? "(no reply yet)" : e.getReply()));
@@ -203,6 +196,7 @@ public class HDBManager extends User {
             System.out.println("Enquiry cannot be empty.");
         } else {
             toReply.setReply(reply);
+            Journal.getInstance().recordEnquiryReplied(toReply);
             System.out.println("Reply saved.");
         }
     }
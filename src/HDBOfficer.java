@@ -1,8 +1,11 @@
 package src;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Represents an HDB Officer, who can also act as an applicant.
@@ -54,18 +57,11 @@ public class HDBOfficer extends Applicant {
      * related to projects they are handling.
      *
      * @param sc Scanner for input
-     * @param allApplicants list of all applicants and their enquiries
+     * @param enquiries store of all enquiries
      */
-    public void enquiryMenu(Scanner sc, List<Applicant> allApplicants) {
-        List<Enquiry> relevantEnquiries = new ArrayList<>();
-
-        for (Applicant applicant : allApplicants) {
-            for (Enquiry enquiry : applicant.getEnquiries()) {
-                if (handledProjects.contains(enquiry.getProject())) {
-                    relevantEnquiries.add(enquiry);
-                }
-            }
-        }
+    public void enquiryMenu(Scanner sc, EnquiryStore enquiries) {
+        Set<Project> projects = new LinkedHashSet<>(handledProjects);
+        List<Enquiry> relevantEnquiries = enquiries.findByProjects(projects);
 
         if (relevantEnquiries.isEmpty()) {
             System.out.println("No enquiries for your projects.");
@@ -73,6 +69,7 @@ public class HDBOfficer extends Applicant {
         }
 
         System.out.println("\n--- Enquiries for Projects You Handle ---");
+        System.out.println(enquiries.findUnrepliedByProjects(projects).size() + " awaiting reply");
         for (int i = 0; i < relevantEnquiries.size(); i++) {
             Enquiry e = relevantEnquiries.get(i);
             System.out.printf("%d. [%s] %s\n", i + 1, e.getProject().getName(), e.getContent());
@@ -94,6 +91,7 @@ public class HDBOfficer extends Applicant {
             System.out.println("Reply cannot be empty.");
         } else {
             toReply.setReply(reply);
+            Journal.getInstance().recordEnquiryReplied(toReply);
             System.out.println("Reply saved.");
         }
     }
@@ -111,21 +109,21 @@ public class HDBOfficer extends Applicant {
     }
 
     /**
-     * Books a flat for a specified applicant if eligible.
+     * Books a flat for a specified applicant if eligible. The booking is made under the
+     * project's lock stripe, so it cannot race with a withdrawal of the same application.
      *
      * @param sc Scanner for input
-     * @param allApplications list of all applications
+     * @param users registry of all users
      */
-    public void bookFlat(Scanner sc, List<Application> allApplications) {
+    public void bookFlat(Scanner sc, UserRegistry users) {
         System.out.print("Enter applicant NRIC to book flat: ");
         String nric = sc.nextLine();
 
         Application foundApp = null;
-        for (Application app : allApplications) {
-            if (app.getApplicant().getNric().equalsIgnoreCase(nric)
-                    && app.getStatus() == Application.Status.SUCCESSFULAPPLY) {
+        if (users.findUser(nric) instanceof Applicant applicant) {
+            Application app = applicant.getApplication();
+            if (app != null && app.getStatus() == Application.Status.SUCCESSFULAPPLY) {
                 foundApp = app;
-                break;
             }
         }
 
@@ -137,13 +135,18 @@ public class HDBOfficer extends Applicant {
         FlatType type = foundApp.getFlatType();
         Project project = foundApp.getProject();
 
-        if (project.getAvailableUnits(type) <= 0) {
-            System.out.println("No more units available for " + type + ".");
-            return;
+        Lock projectLock = LockStripes.PROJECTS.lock(LockStripes.key(project));
+        try {
+            if (!foundApp.compareAndSetStatus(Application.Status.SUCCESSFULAPPLY, Application.Status.BOOKED)) {
+                System.out.println("Application was changed in another session. Not booked.");
+                return;
+            }
+            // The unit was reserved when the application was approved.
+            project.getInventory().commit(type);
+            Journal.getInstance().recordApplication(foundApp);
+        } finally {
+            projectLock.unlock();
         }
-
-        foundApp.setStatus(Application.Status.BOOKED);
-        project.setFlatUnits(type, project.getAvailableUnits(type) - 1);
         System.out.println("Flat booked successfully!");
     }
 
@@ -151,35 +154,34 @@ public class HDBOfficer extends Applicant {
      * Generates a receipt for a given applicant if the officer is authorized.
      *
      * @param nric NRIC of the applicant
-     * @param allApplicants list of all applicants
+     * @param users registry of all users
      */
-    public void generateReceiptByNric(String nric, List<Applicant> allApplicants) {
-        for (Applicant applicant : allApplicants) {
-            if (applicant.getNric().equalsIgnoreCase(nric)) {
-                Application app = applicant.getApplication();
-
-                if (app == null) {
-                    System.out.println("This applicant has no application.");
-                    return;
-                }
-
-                if (!handledProjects.contains(app.getProject())) {
-                    System.out.println("You are not authorized to generate a receipt for this project.");
-                    return;
-                }
-
-                System.out.println("\n=== Flat Booking Receipt ===");
-                System.out.println("Name (NRIC): " + applicant.getNric());
-                System.out.println("Age: " + applicant.getAge());
-                System.out.println("Marital Status: " + applicant.getMaritalStatus());
-                System.out.println("Flat Type Booked: " + app.getFlatType());
-                System.out.println("Project Name: " + app.getProject().getName());
-                System.out.println("Location: " + app.getProject().getNeighborhood());
-                System.out.println("===========================\n");
-                return;
-            }
+    public void generateReceiptByNric(String nric, UserRegistry users) {
+        Applicant applicant = users.findApplicant(nric);
+        if (applicant == null) {
+            System.out.println("No applicant found with NRIC: " + nric);
+            return;
+        }
+
+        Application app = applicant.getApplication();
+
+        if (app == null) {
+            System.out.println("This applicant has no application.");
+            return;
+        }
+
+        if (!handledProjects.contains(app.getProject())) {
+            System.out.println("You are not authorized to generate a receipt for this project.");
+            return;
         }
 
-        System.out.println("No applicant found with NRIC: " + nric);
+        System.out.println("\n=== Flat Booking Receipt ===");
+        System.out.println("Name (NRIC): " + applicant.getNric());
+        System.out.println("Age: " + applicant.getAge());
+        System.out.println("Marital Status: " + applicant.getMaritalStatusLabel());
+        System.out.println("Flat Type Booked: " + app.getFlatType());
+        System.out.println("Project Name: " + app.getProject().getName());
+        System.out.println("Location: " + app.getProject().getNeighborhood());
+        System.out.println("===========================\n");
     }
 }
@@ -0,0 +1,251 @@
+package src;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set of values, each attached to an inclusive date interval, that answers
+ * "which values overlap this period" in logarithmic time.
+ * The tree is an AVL tree ordered by interval start and then end, where each node
+ * also records the latest end date in its subtree, so whole subtrees that end before
+ * a query period can be skipped. Values with identical intervals share a node.
+ *
+ * @param <T> the type of the values
+ */
+public class IntervalTree<T> {
+
+    private static final class Node<T> {
+        final long start;
+        final long end;
+        final List<T> values = new ArrayList<>(1);
+        Node<T> left;
+        Node<T> right;
+        int height = 1;
+        long maxEnd;
+
+        Node(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node<T> root;
+    private int size;
+
+    /**
+     * Adds a value for the given period.
+     *
+     * @param start the first day of the period
+     * @param end   the last day of the period
+     * @param value the value to add
+     */
+    public void add(LocalDate start, LocalDate end, T value) {
+        root = insert(root, start.toEpochDay(), end.toEpochDay(), value);
+        size++;
+    }
+
+    /**
+     * Removes a value that was added for the given period.
+     *
+     * @param start the first day of the period the value was added with
+     * @param end   the last day of the period the value was added with
+     * @param value the value to remove
+     * @return true if the value was found and removed
+     */
+    public boolean remove(LocalDate start, LocalDate end, T value) {
+        int before = size;
+        root = delete(root, start.toEpochDay(), end.toEpochDay(), value);
+        return size < before;
+    }
+
+    /**
+     * Checks whether any value's period shares at least one day with the given period.
+     *
+     * @param start the first day of the period
+     * @param end   the last day of the period
+     * @return true if some value overlaps the period
+     */
+    public boolean overlaps(LocalDate start, LocalDate end) {
+        long from = start.toEpochDay();
+        long to = end.toEpochDay();
+        Node<T> node = root;
+        while (node != null) {
+            if (node.start <= to && from <= node.end) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd >= from) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the values whose periods share at least one day with the given period,
+     * in order of period start.
+     *
+     * @param start the first day of the period
+     * @param end   the last day of the period
+     * @return the overlapping values
+     */
+    public List<T> findOverlapping(LocalDate start, LocalDate end) {
+        List<T> matches = new ArrayList<>();
+        collect(root, start.toEpochDay(), end.toEpochDay(), matches);
+        return matches;
+    }
+
+    /**
+     * Returns the number of values in the tree.
+     *
+     * @return the value count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the tree holds no values.
+     *
+     * @return true if the tree is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void collect(Node<T> node, long from, long to, List<T> matches) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, matches);
+        if (node.start > to) {
+            return; // this node and everything to its right start after the period
+        }
+        if (from <= node.end) {
+            matches.addAll(node.values);
+        }
+        collect(node.right, from, to, matches);
+    }
+
+    private Node<T> insert(Node<T> node, long start, long end, T value) {
+        if (node == null) {
+            Node<T> created = new Node<>(start, end);
+            created.values.add(value);
+            return created;
+        }
+        int cmp = compare(start, end, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, start, end, value);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, start, end, value);
+        } else {
+            node.values.add(value);
+            return node;
+        }
+        return balance(node);
+    }
+
+    private Node<T> delete(Node<T> node, long start, long end, T value) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, end, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, end, value);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, end, value);
+        } else {
+            if (!node.values.remove(value)) {
+                return node;
+            }
+            size--;
+            if (!node.values.isEmpty()) {
+                return node;
+            }
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<T> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node<T> replacement = new Node<>(successor.start, successor.end);
+            replacement.values.addAll(successor.values);
+            replacement.right = removeMin(node.right);
+            replacement.left = node.left;
+            return balance(replacement);
+        }
+        return balance(node);
+    }
+
+    private Node<T> removeMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private static int compare(long start, long end, Node<?> node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Long.compare(end, node.end);
+    }
+
+    private Node<T> balance(Node<T> node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node<?> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+}
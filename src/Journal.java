@@ -0,0 +1,780 @@
+package src;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only journal of state changes.
+ * Every mutation made through the system is appended to the journal as a compact
+ * ';'-delimited record, so saving a session only costs as much as what it changed.
+ * At startup the journal is replayed over the data loaded from the snapshot or CSV files,
+ * and once it grows past {@link #COMPACTION_THRESHOLD} records it is rotated and the changed
+ * datasets are written back to those files, after which the rotated records are discarded.
+ *
+ * Records that create or update an application or project carry its full row, in the
+ * same layout as its CSV file, enquiry records refer to the enquiry by its ID, and
+ * registration records refer to the registration by officer NRIC and project name, so
+ * replaying them more than once gives the same result.
+ *
+ * Sessions make their records durable with {@link #commit()}. In group-commit mode a
+ * background thread forces the journal to disk once per interval and every session
+ * committing during that interval shares the same flush, instead of paying for its own.
+ */
+public class Journal extends DataReader {
+
+    /** Number of records after which the journal should be compacted into the CSV files. */
+    public static final int COMPACTION_THRESHOLD = 10_000;
+
+    /** Default interval between group-commit flushes. */
+    public static final long GROUP_COMMIT_INTERVAL_MILLIS = 20;
+
+    private static final String HEADER = "Record;Fields";
+
+    /**
+     * Types of journal records. Each record starts with the code of its type.
+     */
+    public enum RecordType {
+        PROJECT("P", ChangeTracker.Dataset.PROJECTS),
+        PROJECT_DELETE("P-", ChangeTracker.Dataset.PROJECTS),
+        APPLICATION("A", ChangeTracker.Dataset.APPLICATIONS),
+        APPLICATION_DELETE("A-", ChangeTracker.Dataset.APPLICATIONS),
+        ENQUIRY_ADD("E+", ChangeTracker.Dataset.ENQUIRIES),
+        ENQUIRY_EDIT("E=", ChangeTracker.Dataset.ENQUIRIES),
+        ENQUIRY_REPLY("ER", ChangeTracker.Dataset.ENQUIRIES),
+        ENQUIRY_DELETE("E-", ChangeTracker.Dataset.ENQUIRIES),
+        REGISTRATION_ADD("R+", ChangeTracker.Dataset.REGISTRATIONS),
+        REGISTRATION_STATUS("R=", ChangeTracker.Dataset.REGISTRATIONS),
+        PASSWORD("U", ChangeTracker.Dataset.USERS);
+
+        private final String code;
+        private final ChangeTracker.Dataset dataset;
+
+        RecordType(String code, ChangeTracker.Dataset dataset) {
+            this.code = code;
+            this.dataset = dataset;
+        }
+
+        /** @return the code written at the start of records of this type. */
+        public String getCode() {
+            return code;
+        }
+
+        /** @return the dataset changed by records of this type. */
+        public ChangeTracker.Dataset getDataset() {
+            return dataset;
+        }
+
+        /**
+         * Finds the record type with the given code.
+         *
+         * @param code the record code
+         * @return the matching record type
+         * @throws IllegalArgumentException if no type has that code
+         */
+        public static RecordType fromCode(String code) {
+            for (RecordType type : values()) {
+                if (type.code.equals(code)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown journal record: " + code);
+        }
+    }
+
+    private static Journal instance = new Journal(null);
+
+    private final String filePath;
+    private final ProjectCSVLoader projectFormat = new ProjectCSVLoader();
+    private FileOutputStream stream;
+    private Writer out;
+    private int recordCount;
+    private long appendedCount;
+    private long durableCount;
+    private long failedFlushes;
+    private Thread groupCommitter;
+
+    /**
+     * Constructs a journal backed by the given file. The journal does not
+     * record anything until {@link #open()} is called.
+     *
+     * @param filePath path of the journal file, or null for a journal that never records
+     */
+    public Journal(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Returns the journal that mutations are recorded to.
+     *
+     * @return the active journal
+     */
+    public static Journal getInstance() {
+        return instance;
+    }
+
+    /**
+     * Sets the journal that mutations are recorded to.
+     *
+     * @param journal the journal to use
+     */
+    public static void setInstance(Journal journal) {
+        instance = journal;
+    }
+
+    /**
+     * Opens the journal file for appending, creating it if needed.
+     * If the file cannot be opened the journal stays closed and records are ignored.
+     */
+    public synchronized void open() {
+        if (filePath == null || out != null) {
+            return;
+        }
+        try {
+            File file = new File(filePath);
+            boolean isNew = !file.exists() || file.length() == 0;
+            stream = new FileOutputStream(file, true);
+            out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+            if (isNew) {
+                out.write(HEADER);
+                out.write(System.lineSeparator());
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to open journal " + filePath + ":");
+            e.printStackTrace();
+            close();
+        }
+    }
+
+    /**
+     * Checks whether the journal is open and recording mutations.
+     *
+     * @return true if records are being written
+     */
+    public synchronized boolean isOpen() {
+        return out != null;
+    }
+
+    /**
+     * Records the creation or update of a project.
+     *
+     * @param project the project in its new state
+     */
+    public void recordProject(Project project) {
+        appendLine(RecordType.PROJECT, projectFormat.formatProjectAsCSV(project));
+    }
+
+    /**
+     * Records the deletion of a project.
+     *
+     * @param project the deleted project
+     */
+    public void recordProjectDeleted(Project project) {
+        append(RecordType.PROJECT_DELETE, project.getName());
+    }
+
+    /**
+     * Records the creation or update of an application.
+     *
+     * @param app the application in its new state
+     */
+    public void recordApplication(Application app) {
+        append(RecordType.APPLICATION,
+                app.getApplicant().getNric(),
+                app.getProject().getName(),
+                app.getFlatType().name(),
+                app.getStatus().name(),
+                app.getAction());
+    }
+
+    /**
+     * Records the removal of an applicant's application.
+     *
+     * @param applicant the applicant whose application was removed
+     */
+    public void recordApplicationDeleted(Applicant applicant) {
+        append(RecordType.APPLICATION_DELETE, applicant.getNric());
+    }
+
+    /**
+     * Records a newly submitted enquiry.
+     *
+     * @param enquiry the new enquiry
+     */
+    public void recordEnquiryAdded(Enquiry enquiry) {
+        append(RecordType.ENQUIRY_ADD, String.valueOf(enquiry.getId()), enquiry.getOwner().getNric(),
+                enquiry.getProject().getName(), enquiry.getContent());
+    }
+
+    /**
+     * Records a change to the content of an enquiry.
+     *
+     * @param enquiry the edited enquiry
+     */
+    public void recordEnquiryEdited(Enquiry enquiry) {
+        append(RecordType.ENQUIRY_EDIT, String.valueOf(enquiry.getId()), enquiry.getContent());
+    }
+
+    /**
+     * Records a reply to an enquiry.
+     *
+     * @param enquiry the enquiry that was replied to
+     */
+    public void recordEnquiryReplied(Enquiry enquiry) {
+        append(RecordType.ENQUIRY_REPLY, String.valueOf(enquiry.getId()), enquiry.getReply());
+    }
+
+    /**
+     * Records the deletion of an enquiry.
+     *
+     * @param enquiry the deleted enquiry
+     */
+    public void recordEnquiryDeleted(Enquiry enquiry) {
+        append(RecordType.ENQUIRY_DELETE, String.valueOf(enquiry.getId()));
+    }
+
+    /**
+     * Records a new officer registration.
+     *
+     * @param reg the new registration
+     */
+    public void recordRegistrationAdded(OfficerRegistration reg) {
+        append(RecordType.REGISTRATION_ADD, reg.getOfficer().getNric(), reg.getProject().getName());
+    }
+
+    /**
+     * Records a change to the status of an officer registration.
+     *
+     * @param reg the updated registration
+     */
+    public void recordRegistrationStatus(OfficerRegistration reg) {
+        append(RecordType.REGISTRATION_STATUS, reg.getOfficer().getNric(), reg.getProject().getName(),
+                reg.getStatus().name());
+    }
+
+    /**
+     * Records a password change.
+     *
+     * @param user the user whose password changed
+     */
+    public void recordPassword(User user) {
+        append(RecordType.PASSWORD, user.getNric(), user.getPassword());
+    }
+
+    private void append(RecordType type, String... fields) {
+        appendLine(type, formatCSVRow(fields));
+    }
+
+    private synchronized void appendLine(RecordType type, String row) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.write(type.getCode());
+            out.write(';');
+            out.write(row);
+            out.write(System.lineSeparator());
+            recordCount++;
+            appendedCount++;
+        } catch (IOException e) {
+            System.err.println("Failed to write journal record:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Flushes buffered records and forces them to the storage device.
+     *
+     * @return true if all records are durable
+     */
+    public synchronized boolean sync() {
+        if (out == null) {
+            return false;
+        }
+        try {
+            out.flush();
+            stream.getFD().sync();
+            durableCount = appendedCount;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to sync journal:");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Starts group-commit mode, in which a background thread forces new records
+     * to disk once per interval and {@link #commit()} waits for the next such flush.
+     *
+     * @param intervalMillis time between flushes, in milliseconds
+     */
+    public synchronized void startGroupCommit(long intervalMillis) {
+        if (out == null || groupCommitter != null) {
+            return;
+        }
+        groupCommitter = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(intervalMillis);
+                    flushGroup();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "journal-group-commit");
+        groupCommitter.setDaemon(true);
+        groupCommitter.start();
+    }
+
+    /**
+     * Makes every record appended so far durable. In group-commit mode this waits for the
+     * next periodic flush; otherwise the journal is synced immediately.
+     *
+     * @return true if the records are durable
+     */
+    public synchronized boolean commit() {
+        if (groupCommitter == null) {
+            return sync();
+        }
+
+        long target = appendedCount;
+        long failuresBefore = failedFlushes;
+        try {
+            while (durableCount < target && failedFlushes == failuresBefore && out != null) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return durableCount >= target;
+    }
+
+    /**
+     * Forces all records appended so far to disk on behalf of every waiting session.
+     * Records are handed to the OS under the lock, but the slow force happens outside it
+     * so sessions can keep appending in the meantime.
+     */
+    private void flushGroup() {
+        long target;
+        FileOutputStream flushed;
+        synchronized (this) {
+            if (out == null || durableCount == appendedCount) {
+                return;
+            }
+            target = appendedCount;
+            flushed = stream;
+            try {
+                out.flush();
+            } catch (IOException e) {
+                failFlush(e);
+                return;
+            }
+        }
+
+        try {
+            flushed.getFD().sync();
+        } catch (IOException e) {
+            synchronized (this) {
+                if (flushed == stream) {
+                    failFlush(e);
+                    return;
+                }
+                // The journal was rotated meanwhile, which already synced these records.
+            }
+        }
+
+        synchronized (this) {
+            durableCount = Math.max(durableCount, target);
+            notifyAll();
+        }
+    }
+
+    private void failFlush(IOException e) {
+        System.err.println("Failed to sync journal:");
+        e.printStackTrace();
+        failedFlushes++;
+        notifyAll();
+    }
+
+    /**
+     * Checks whether the journal has grown large enough to be compacted.
+     *
+     * @return true if the record count has reached {@link #COMPACTION_THRESHOLD}
+     */
+    public synchronized boolean needsCompaction() {
+        return recordCount >= COMPACTION_THRESHOLD;
+    }
+
+    /**
+     * Moves the records written so far into the rotated journal file and continues with an
+     * empty journal, so the data files can be compacted while new records are still appended.
+     * If an earlier rotated file has not been discarded yet, the records are added to its end.
+     * Call {@link #discardRotated()} once every change in the rotated file has been saved.
+     *
+     * @return true if the journal was rotated
+     */
+    public synchronized boolean rotate() {
+        if (out == null) {
+            return false;
+        }
+        Path current = Path.of(filePath);
+        Path rotated = Path.of(getRotatedPath());
+        try {
+            out.flush();
+            stream.getFD().sync();
+            durableCount = appendedCount;
+
+            if (Files.exists(rotated)) {
+                List<String> lines = Files.readAllLines(current, StandardCharsets.UTF_8);
+                StringBuilder records = new StringBuilder();
+                for (String line : lines.subList(1, lines.size())) {
+                    records.append(line).append(System.lineSeparator());
+                }
+                try (FileChannel channel = FileChannel.open(rotated, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    channel.write(StandardCharsets.UTF_8.encode(records.toString()));
+                    channel.force(false);
+                }
+                stream.getChannel().truncate(0);
+                out.write(HEADER);
+                out.write(System.lineSeparator());
+                out.flush();
+            } else {
+                out.close();
+                out = null;
+                stream = null;
+                Files.move(current, rotated, StandardCopyOption.ATOMIC_MOVE);
+                open();
+            }
+            recordCount = 0;
+            return out != null;
+        } catch (IOException e) {
+            System.err.println("Failed to rotate journal:");
+            e.printStackTrace();
+            if (out == null) {
+                open();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the rotated journal file. Only call this once every change it describes
+     * has been saved to the data files.
+     *
+     * @return true if the rotated file no longer exists
+     */
+    public synchronized boolean discardRotated() {
+        if (filePath == null) {
+            return true;
+        }
+        try {
+            Files.deleteIfExists(Path.of(getRotatedPath()));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to delete rotated journal:");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the path of the rotated journal file, which holds records whose
+     * compaction into the data files is still in progress.
+     *
+     * @return the rotated file path
+     */
+    public String getRotatedPath() {
+        return filePath + ".old";
+    }
+
+    /**
+     * Checks whether the rotated or current journal file holds any record, that is,
+     * whether there are changes the data files may not contain yet. A file that cannot
+     * be read is taken to hold records.
+     *
+     * @return true if a journal file holds at least one record
+     */
+    public synchronized boolean hasRecords() {
+        if (filePath == null) {
+            return false;
+        }
+        return hasRecords(Path.of(getRotatedPath())) || hasRecords(Path.of(filePath));
+    }
+
+    private static boolean hasRecords(Path path) {
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            reader.readLine(); // header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            System.err.println("Failed to read journal " + path + ":");
+            e.printStackTrace();
+            return true;
+        }
+    }
+
+    /**
+     * Discards all records, including any rotated file. Only call this once every change
+     * they describe has been saved to the data files.
+     */
+    public synchronized void truncate() {
+        if (out == null) {
+            return;
+        }
+        discardRotated();
+        try {
+            out.flush();
+            stream.getChannel().truncate(0);
+            out.write(HEADER);
+            out.write(System.lineSeparator());
+            out.flush();
+            stream.getFD().sync();
+            recordCount = 0;
+            durableCount = appendedCount;
+        } catch (IOException e) {
+            System.err.println("Failed to truncate journal:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Closes the journal file. Records made afterwards are ignored.
+     */
+    public synchronized void close() {
+        if (groupCommitter != null) {
+            groupCommitter.interrupt();
+            groupCommitter = null;
+        }
+        try {
+            if (out != null) {
+                out.close();
+            } else if (stream != null) {
+                stream.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        out = null;
+        stream = null;
+        notifyAll();
+    }
+
+    /**
+     * Applies every record in the rotated and current journal files to the loaded data, in order.
+     * The datasets changed by the records are marked dirty, since their data files do not yet contain the changes.
+     *
+     * @param data the data loaded from the data files
+     * @return the number of records applied
+     */
+    public int replay(DataStore data) {
+        if (filePath == null) {
+            return 0;
+        }
+        SymbolTable symbols = SymbolTable.of(data);
+        int applied = replayFile(getRotatedPath(), data, symbols) + replayFile(filePath, data, symbols);
+        synchronized (this) {
+            recordCount += applied;
+        }
+        return applied;
+    }
+
+    /**
+     * Applies every record in one journal file to the loaded data, in order.
+     *
+     * @param path    the journal file
+     * @param data    the data to update
+     * @param symbols lookup of the users and projects in the data
+     * @return the number of records applied
+     */
+    private int replayFile(String path, DataStore data, SymbolTable symbols) {
+        if (!new File(path).exists()) {
+            return 0;
+        }
+
+        int[] applied = {0};
+        streamCSVFile(path, (row, i) -> {
+            try {
+                RecordType type = RecordType.fromCode(row.get(0));
+                CSVRow fields = new CSVRow() {
+                    @Override
+                    public int size() {
+                        return row.size() - 1;
+                    }
+
+                    @Override
+                    public String get(int index) {
+                        return row.get(index + 1);
+                    }
+                };
+                apply(type, fields, data, symbols);
+                ChangeTracker.markDirty(type.getDataset());
+                applied[0]++;
+            } catch (Exception e) {
+                System.out.println("Skipping journal record " + i + ": " + e.getMessage());
+            }
+        });
+        return applied[0];
+    }
+
+    /**
+     * Applies a single record.
+     *
+     * @param type    the record type
+     * @param fields  the fields following the record code
+     * @param data    the data to update
+     * @param symbols lookup of the users and projects in the data
+     */
+    private void apply(RecordType type, CSVRow fields, DataStore data, SymbolTable symbols) {
+        switch (type) {
+            case PROJECT -> applyProject(fields, data, symbols);
+            case PROJECT_DELETE -> {
+                Project project = requireProject(fields.get(0), symbols);
+                data.getProjects().remove(project);
+            }
+            case APPLICATION -> applyApplication(fields, data, symbols);
+            case APPLICATION_DELETE -> {
+                Applicant applicant = requireApplicant(fields.get(0), symbols);
+                Application app = applicant.getApplication();
+                if (app != null) {
+                    applicant.setApplication(null);
+                    data.getApplications().remove(app);
+                }
+            }
+            case ENQUIRY_ADD -> data.getEnquiries().add(new Enquiry(Integer.parseInt(fields.get(0)),
+                    requireApplicant(fields.get(1), symbols), requireProject(fields.get(2), symbols),
+                    fields.get(3), ""));
+            case ENQUIRY_EDIT -> requireEnquiry(fields.get(0), data).setContent(fields.get(1));
+            case ENQUIRY_REPLY -> requireEnquiry(fields.get(0), data).setReply(fields.get(1));
+            case ENQUIRY_DELETE -> data.getEnquiries().remove(Integer.parseInt(fields.get(0)));
+            case REGISTRATION_ADD -> requireRegistration(fields, data, symbols);
+            case REGISTRATION_STATUS -> requireRegistration(fields, data, symbols)
+                    .setStatus(OfficerRegistration.Status.valueOf(fields.get(2)));
+            case PASSWORD -> {
+                User user = symbols.findUser(fields.get(0));
+                if (user == null) {
+                    throw new IllegalArgumentException("Unknown user " + fields.get(0));
+                }
+                user.changePassword(fields.get(1));
+            }
+        }
+    }
+
+    /**
+     * Creates a project from a project record, or updates the existing project with the same name.
+     */
+    private void applyProject(CSVRow fields, DataStore data, SymbolTable symbols) {
+        Project parsed = projectFormat.parseProjectRow(fields, symbols);
+        Project existing = symbols.findProject(parsed.getName());
+
+        if (existing == null) {
+            for (HDBOfficer officer : parsed.getOfficerInCharge()) {
+                officer.assignHandledProject(parsed);
+            }
+            data.getProjects().add(parsed);
+            return;
+        }
+
+        for (FlatType type : FlatType.values()) {
+            existing.setFlatUnits(type, parsed.getAvailableUnits(type));
+        }
+        existing.setOfficerSlots(parsed.getOfficerSlots());
+        if (existing.isVisible() != parsed.isVisible()) {
+            existing.toggleVisibility();
+        }
+        for (HDBOfficer officer : parsed.getOfficerInCharge()) {
+            if (!existing.getOfficerInCharge().contains(officer)) {
+                existing.addOfficerInCharge(officer);
+                officer.assignHandledProject(existing);
+            }
+        }
+    }
+
+    /**
+     * Creates an application from an application record, or updates the applicant's
+     * existing application if it is for the same project and flat type.
+     */
+    private void applyApplication(CSVRow fields, DataStore data, SymbolTable symbols) {
+        Applicant applicant = requireApplicant(fields.get(0), symbols);
+        Project project = requireProject(fields.get(1), symbols);
+        FlatType flatType = FlatType.valueOf(fields.get(2));
+        Application.Status status = Application.Status.valueOf(fields.get(3));
+        boolean withdrawalRequested = "Withdrawal".equalsIgnoreCase(fields.get(4));
+
+        Application app = applicant.getApplication();
+        if (app == null || app.getProject() != project || app.getFlatType() != flatType) {
+            if (app != null) {
+                data.getApplications().remove(app);
+            }
+            app = new Application(applicant, project, flatType);
+            applicant.setApplication(app);
+            data.getApplications().add(app);
+        }
+        app.restoreStatus(status);
+        app.setWithdrawal(withdrawalRequested);
+    }
+
+    /**
+     * Returns the registration of the officer and project named by a registration record,
+     * adding a pending one if there is none yet.
+     */
+    private OfficerRegistration requireRegistration(CSVRow fields, DataStore data, SymbolTable symbols) {
+        HDBOfficer officer = symbols.findOfficer(fields.get(0));
+        if (officer == null) {
+            throw new IllegalArgumentException("Unknown officer " + fields.get(0));
+        }
+        Project project = requireProject(fields.get(1), symbols);
+        OfficerRegistration reg = data.getRegistrations().find(officer, project);
+        if (reg == null) {
+            reg = new OfficerRegistration(officer, project);
+            data.getRegistrations().add(reg);
+        }
+        return reg;
+    }
+
+    private Applicant requireApplicant(String nric, SymbolTable symbols) {
+        Applicant applicant = symbols.findApplicant(nric);
+        if (applicant == null) {
+            applicant = symbols.findOfficer(nric);
+        }
+        if (applicant == null) {
+            throw new IllegalArgumentException("Unknown applicant " + nric);
+        }
+        return applicant;
+    }
+
+    private Project requireProject(String name, SymbolTable symbols) {
+        Project project = symbols.findProject(name);
+        if (project == null) {
+            throw new IllegalArgumentException("Unknown project " + name);
+        }
+        return project;
+    }
+
+    private Enquiry requireEnquiry(String id, DataStore data) {
+        Enquiry enquiry = data.getEnquiries().find(Integer.parseInt(id));
+        if (enquiry == null) {
+            throw new IllegalArgumentException("Unknown enquiry " + id);
+        }
+        return enquiry;
+    }
+}
@@ -0,0 +1,116 @@
+package src;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks that keys are spread over by hash, so multi-step workflows on
+ * the same key run one at a time while workflows on different keys rarely wait for
+ * each other. Each stripe counts how often it was acquired and how often the caller
+ * had to wait for it, which shows where sessions contend.
+ *
+ * Two sets of stripes are shared by the application workflows: {@link #APPLICANTS},
+ * keyed by applicant NRIC, and {@link #PROJECTS}, keyed by project. A workflow that
+ * needs both locks its applicant stripe first, so two workflows never wait on each other.
+ */
+public class LockStripes {
+    /** Stripes guarding the one-application-per-applicant rule, keyed by packed NRIC. */
+    public static final LockStripes APPLICANTS = new LockStripes(64);
+
+    /** Stripes guarding each project's applications and units, keyed by {@link #key(Project)}. */
+    public static final LockStripes PROJECTS = new LockStripes(64);
+
+    private final ReentrantLock[] locks;
+    private final LongAdder[] acquisitions;
+    private final LongAdder[] contended;
+    private final int mask;
+
+    /**
+     * Constructs a set of stripes.
+     *
+     * @param stripes the minimum number of stripes, rounded up to a power of two
+     */
+    public LockStripes(int stripes) {
+        int count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        locks = new ReentrantLock[count];
+        acquisitions = new LongAdder[count];
+        contended = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            locks[i] = new ReentrantLock();
+            acquisitions[i] = new LongAdder();
+            contended[i] = new LongAdder();
+        }
+        mask = count - 1;
+    }
+
+    /**
+     * Returns the key of a project in {@link #PROJECTS}: the hash of its case-folded name,
+     * the key the {@link ProjectCatalog} indexes it by. The key does not depend on the
+     * process, so a project is guarded by the same stripe in every run.
+     *
+     * @param project the project
+     * @return the project's key
+     */
+    public static long key(Project project) {
+        return ProjectCatalog.key(project.getName()).hashCode();
+    }
+
+    /**
+     * Acquires the stripe of a key, waiting if another thread holds it. The caller must
+     * release the returned lock in a {@code finally} block.
+     *
+     * @param key the key
+     * @return the acquired lock
+     */
+    public Lock lock(long key) {
+        int stripe = stripeFor(key);
+        ReentrantLock lock = locks[stripe];
+        if (!lock.tryLock()) {
+            contended[stripe].increment();
+            lock.lock();
+        }
+        acquisitions[stripe].increment();
+        return lock;
+    }
+
+    /**
+     * Returns the stripe a key is guarded by.
+     *
+     * @param key the key
+     * @return the stripe index
+     */
+    public int stripeFor(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Returns the number of stripes.
+     *
+     * @return the stripe count
+     */
+    public int getStripeCount() {
+        return locks.length;
+    }
+
+    /**
+     * Returns how many times a stripe has been acquired.
+     *
+     * @param stripe the stripe index
+     * @return the acquisition count
+     */
+    public long getAcquisitions(int stripe) {
+        return acquisitions[stripe].sum();
+    }
+
+    /**
+     * Returns how many acquisitions of a stripe had to wait for another thread.
+     *
+     * @param stripe the stripe index
+     * @return the contended acquisition count
+     */
+    public long getContended(int stripe) {
+        return contended[stripe].sum();
+    }
+}
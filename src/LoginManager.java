@@ -3,17 +3,17 @@ package src;
 import java.util.*;
 
 /**
- * Handles user login functionality by validating credentials against a list of users.
+ * Handles user login functionality by validating credentials against the user registry.
  */
 public class LoginManager {
-    private List<User> users;
+    private UserRegistry users;
 
     /**
-     * Constructs a LoginManager with a list of users.
+     * Constructs a LoginManager over the registry of users.
      *
-     * @param users List of registered users in the system
+     * @param users Registry of registered users in the system
      */
-    public LoginManager(List<User> users) {
+    public LoginManager(UserRegistry users) {
         this.users = users;
     }
 
@@ -30,11 +30,10 @@ public class LoginManager {
         System.out.print("Enter Password: ");
         String password = sc.nextLine();
 
-        for (User user : users) {
-            if (user.getNric().equalsIgnoreCase(nric) && user.login(password)) {
-                System.out.println("Login successful!\n");
-                return user;
-            }
+        User user = users.findUser(nric);
+        if (user != null && user.login(password)) {
+            System.out.println("Login successful!\n");
+            return user;
         }
 
         System.out.println("Invalid NRIC or Password. Try again.\n");
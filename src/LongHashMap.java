@@ -0,0 +1,257 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Hash map from primitive {@code long} keys to values, using open addressing with
+ * linear probing.
+ * Keys are stored in a plain {@code long[]} next to an array of values, so an entry
+ * costs two array slots instead of a boxed key and a node object, and a lookup hashes
+ * and compares numbers only. Removal shifts the following entries of the probe run back,
+ * so no tombstones build up. {@link Long#MIN_VALUE} is reserved and cannot be used as a key.
+ * Not thread-safe.
+ *
+ * @param <V> the type of the values
+ */
+public class LongHashMap<V> {
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * Constructs an empty map.
+     */
+    public LongHashMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Constructs an empty map sized to hold the given number of entries without resizing.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    public LongHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Returns the value for a key.
+     *
+     * @param key the key
+     * @return the value, or null if the key is not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * Checks whether the map has an entry for a key.
+     *
+     * @param key the key
+     * @return true if the key is in the map
+     */
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Associates a value with a key, replacing any previous value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the previous value, or null if the key was not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        checkKey(key);
+        int slot = slotFor(key);
+        if (keys[slot] == key) {
+            V old = (V) values[slot];
+            values[slot] = value;
+            return old;
+        }
+        insert(slot, key, value);
+        return null;
+    }
+
+    /**
+     * Associates a value with a key unless the key is already in the map.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the existing value, or null if the value was added
+     */
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(long key, V value) {
+        checkKey(key);
+        int slot = slotFor(key);
+        if (keys[slot] == key) {
+            return (V) values[slot];
+        }
+        insert(slot, key, value);
+        return null;
+    }
+
+    /**
+     * Returns the value for a key, first adding the value computed from the key if absent.
+     *
+     * @param key      the key
+     * @param function computes the value for an absent key
+     * @return the existing or added value
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(long key, LongFunction<? extends V> function) {
+        checkKey(key);
+        int slot = slotFor(key);
+        if (keys[slot] == key) {
+            return (V) values[slot];
+        }
+        V value = function.apply(key);
+        insert(slot, key, value);
+        return value;
+    }
+
+    /**
+     * Removes the entry for a key.
+     *
+     * @param key the key
+     * @return the removed value, or null if the key was not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V old = (V) values[slot];
+        size--;
+
+        // Shift back the entries after the removed one that would no longer be found.
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        values[gap] = null;
+        return old;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map has no entries.
+     *
+     * @return true if the map is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the values of the map, in no particular order.
+     *
+     * @return a snapshot of the values
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                result.add((V) values[i]);
+            }
+        }
+        return result;
+    }
+
+    private int find(long key) {
+        if (key == EMPTY) {
+            return -1;
+        }
+        int slot = slotFor(key);
+        return keys[slot] == key ? slot : -1;
+    }
+
+    /**
+     * Returns the slot holding the key, or the empty slot where it would be inserted.
+     */
+    private int slotFor(long key) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(int slot, long key, V value) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length / 4 * 3) {
+            resize(keys.length * 2);
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Reserved key " + key);
+        }
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity / 4 * 3 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Spreads the bits of the key, since packed keys differ mostly in their middle bits.
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -1,92 +1,97 @@
 package src;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Scanner;
 
 /**
  * Entry point of the HDB BTO Management System.
- * Handles initialization, data loading from CSV files,
- * user login, and dashboard routing based on roles.
+ * Handles initialization and data loading, then runs sessions either on the
+ * console or, in server mode, for many users at once.
  */
 public class Main {
 
     /**
      * Main method to run the BTO Management System.
      *
-     * @param args Command-line arguments (not used)
+     * @param args Command-line arguments: none to run the system on the console,
+     *             {@code server [port]} to serve many sessions at once over a local
+     *             socket, or {@code import-csv} / {@code export-csv} to convert between
+     *             the CSV files and the binary snapshot; {@code import-csv} refuses to
+     *             replace a snapshot whose journal still holds changes, since those
+     *             changes are not in the CSV files and would be lost
      */
     public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
-
-        // ==== Data containers ====
-        List<User> users = new ArrayList<>();
-        List<Applicant> allApplicants = new ArrayList<>();
-        List<HDBOfficer> allOfficers = new ArrayList<>();
-        List<HDBManager> allManagers = new ArrayList<>();
-        List<Project> allProjects = new ArrayList<>();
-        List<Application> allApplications = new ArrayList<>();
-        List<OfficerRegistration> allOfficerRegistrations = new ArrayList<>();
-        List<Enquiry> enquiries = new ArrayList<>();
-
-        // ==== Load users from CSV ====
-        UserCSVLoader loader = new UserCSVLoader();
-        loader.loadUsersFromCSV(
-                "ApplicantList.csv",
-                "OfficerList.csv",
-                "ManagerList.csv",
-                users,
-                allApplicants,
-                allOfficers,
-                allManagers
-        );
-
-        ProjectCSVLoader projectLoader = new ProjectCSVLoader();
-        projectLoader.loadProjectsFromCSV("ProjectList.csv", allProjects, allManagers, allOfficers);
-
-        EnquiryCSVLoader enquiryLoader = new EnquiryCSVLoader();
-        enquiries = enquiryLoader.loadEnquiriesFromCSV("EnquiryList.csv", allProjects, allApplicants);
+        Journal journal = new Journal(StartupLoader.JOURNAL_FILE);
+        Journal.setInstance(journal);
+        boolean server = args.length > 0 && args[0].equals("server");
+        if (args.length > 0 && !server) {
+            convert(args[0], journal);
+            return;
+        }
+        int port = server && args.length > 1 ? Integer.parseInt(args[1]) : SessionServer.DEFAULT_PORT;
 
-        ApplicationCSVLoader appLoader = new ApplicationCSVLoader();
-        allApplications = appLoader.loadApplicationsFromCSV("ApplicationList.csv", allApplicants, allProjects, allApplications);
+        // ==== Load data from the snapshot or CSV, and the journal ====
+        StartupLoader loader = new StartupLoader();
+        DataStore data = loader.load();
+        journal.open();
+        journal.startGroupCommit(Journal.GROUP_COMMIT_INTERVAL_MILLIS);
 
-        OfficerRegistrationCSVLoader regLoader = new OfficerRegistrationCSVLoader();
-        allOfficerRegistrations = regLoader.loadRegistrationsFromCSV("RegistrationList.csv", allOfficers, allProjects);
+        DataSaver saver = loader.isFromSnapshot() ? new DataSaver(StartupLoader.SNAPSHOT_FILE) : new DataSaver();
+        PersistenceWriter writer = new PersistenceWriter(saver, journal);
+        Runtime.getRuntime().addShutdownHook(new Thread(writer::close));
 
-        // ==== Controllers ====
-        ProjectController projectController = new ProjectController(allProjects);
-        ApplicationController applicationController = new ApplicationController(allApplications);
-        OfficerController officerController = new OfficerController(allOfficerRegistrations);
-        EnquiryController enquiryController = new EnquiryController();
+        Session session = new Session(data, writer);
+        if (server) {
+            new SessionServer(session).serve(port);
+            return;
+        }
 
         // ==== Login loop ====
-        LoginManager loginManager = new LoginManager(users);
-
+        Scanner sc = new Scanner(System.in);
         while (true) {
-            User loggedInUser = null;
+            session.run(sc);
+        }
+    }
 
-            while (loggedInUser == null) {
-                loggedInUser = loginManager.login(sc);
+    /**
+     * Converts between the CSV files and the binary snapshot.
+     * {@code import-csv} builds the snapshot from the CSV files, after which the system
+     * runs from the snapshot and the journal is cleared. While a snapshot exists the
+     * journal records changes to the snapshot, not to the CSV files, so importing then
+     * would lose them; it is refused until {@code export-csv} has been run.
+     * {@code export-csv} writes the current data, including the journal, back to the CSV
+     * files, and to the snapshot if there is one, and then clears the journal.
+     *
+     * @param command the conversion to run
+     * @param journal the journal of changes not yet in the data files
+     */
+    private static void convert(String command, Journal journal) {
+        switch (command) {
+            case "import-csv" -> {
+                if (SnapshotFile.exists(StartupLoader.SNAPSHOT_FILE) && journal.hasRecords()) {
+                    System.out.println("Not importing: " + StartupLoader.JOURNAL_FILE + " holds changes to "
+                            + StartupLoader.SNAPSHOT_FILE + " that are not in the CSV files and would be lost."
+                            + " Run export-csv first.");
+                    return;
+                }
+                DataStore data = new StartupLoader().loadFromCSV();
+                if (new SnapshotFile().write(StartupLoader.SNAPSHOT_FILE, data)) {
+                    journal.open();
+                    journal.truncate();
+                    journal.close();
+                }
             }
-
-            // ==== Role Routing ====
-            if (loggedInUser instanceof HDBManager manager) {
-                new ManagerUI(manager).showDashboard(sc, allProjects, officerController, allApplications, allApplicants);
-            } else if (loggedInUser instanceof HDBOfficer officer) {
-                new OfficerUI(officer).showDashboard(sc, allApplications, officerController, projectController, applicationController, enquiryController, allApplicants);
-            } else if (loggedInUser instanceof Applicant applicant) {
-                ApplicantUI applicantUI = new ApplicantUI(projectController, applicationController, enquiryController);
-                applicantUI.show(applicant, sc);
+            case "export-csv" -> {
+                StartupLoader loader = new StartupLoader();
+                DataStore data = loader.load();
+                if (new DataSaver().saveAllToCSV(data)
+                        && (!loader.isFromSnapshot() || new SnapshotFile().write(StartupLoader.SNAPSHOT_FILE, data))) {
+                    // Every data file now holds the journal's changes.
+                    journal.open();
+                    journal.truncate();
+                    journal.close();
+                }
             }
-
-            // ==== Save data back to CSV ====
-            System.out.println("\nReturning to main menu...");
-            enquiryLoader.saveEnquiriesToCSV("EnquiryList.csv", allApplicants);
-            projectLoader.saveProjectsToCSV("ProjectList.csv", allProjects);
-            loader.saveUserToCSV("ApplicantList.csv", allApplicants);
-            appLoader.saveApplicationsToCSV("ApplicationList.csv", allApplications);
-            regLoader.saveRegistrationsToCSV("RegistrationList.csv", allOfficerRegistrations);
-            projectLoader.saveProjectsToCSV("ProjectList.csv", allProjects);
+            default -> System.out.println("Unknown command: " + command + " (expected import-csv or export-csv)");
         }
     }
 }
@@ -1,6 +1,5 @@
 package src;
 
-import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -25,17 +24,17 @@ public class ManagerUI {
      * based on user input.
      *
      * @param sc               Scanner for user input
-     * @param allProjects      List of all projects in the system
+     * @param allProjects      Catalog of all projects in the system
      * @param officerController Controller handling officer registration
-     * @param allApplications  List of all applications in the system
-     * @param allApplicants    List of all applicants
+     * @param allApplications  Store of all applications in the system
+     * @param enquiries        Store of all enquiries
      */
     public void showDashboard(
             Scanner sc,
-            List<Project> allProjects,
+            ProjectCatalog allProjects,
             OfficerController officerController,
-            List<Application> allApplications,
-            List<Applicant> allApplicants) {
+            ApplicationStore allApplications,
+            EnquiryStore enquiries) {
 
         while (true) {
             System.out.println("\n--- HDB Manager Dashboard ---");
@@ -53,7 +52,9 @@ public class ManagerUI {
             System.out.println("12. View all Enquiries");
             System.out.println("13. View Enquiries of My Projects");
             System.out.println("14. Generate Booking Report");
-            System.out.println("15. Logout");
+            System.out.println("15. View Lock Contention");
+            System.out.println("16. Run Application Ballot");
+            System.out.println("17. Logout");
             System.out.print("Choose: ");
 
             int choice = Integer.parseInt(sc.nextLine());
@@ -69,11 +70,13 @@ public class ManagerUI {
                 case 8 -> manager.getRegistrationService().approveRegistrations(manager, officerController, sc);
                 case 9 -> manager.getApplicationService().viewApplications(allApplications);
                 case 10 -> manager.getApplicationService().approveApplications(manager, sc, allApplications);
-                case 11 -> manager.getApplicationService().handleWithdrawals(sc, allApplicants, allApplications);
-                case 12 -> manager.viewAllEnquiries(allApplicants);
-                case 13 -> manager.viewEnquiriesOfMyProjects(allApplicants, allProjects, sc);
+                case 11 -> manager.getApplicationService().handleWithdrawals(manager, sc, allProjects, allApplications);
+                case 12 -> manager.viewAllEnquiries(enquiries);
+                case 13 -> manager.viewEnquiriesOfMyProjects(enquiries, allProjects, sc);
                 case 14 -> manager.getReportService().generateBookingReport(sc, allApplications);
-                case 15 -> {
+                case 15 -> manager.getReportService().generateContentionReport(allProjects);
+                case 16 -> manager.getApplicationService().runBallot(manager, sc, allProjects, allApplications);
+                case 17 -> {
                     System.out.println("Logging out...");
                     return;
                 }
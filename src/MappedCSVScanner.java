@@ -0,0 +1,220 @@
+package src;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Memory-mapped scanner for ';'-delimited files.
+ * Maps the whole file read-only and finds row and field boundaries by scanning
+ * the mapped bytes directly, leaving the reading to the OS page cache.
+ * Bytes are only decoded as UTF-8 when a field is requested through {@link #get(int)}.
+ *
+ * Accepts the same syntax as {@link CSVTokenizer}: quoted fields with doubled quotes,
+ * "\;" escapes outside quotes, and LF, CRLF or CR line endings. Files larger than
+ * 2 GB cannot be mapped in one piece and should be read with {@link CSVTokenizer}.
+ */
+public class MappedCSVScanner implements CSVSource {
+    private static final byte DELIMITER = ';';
+    private static final byte QUOTE = '"';
+    private static final byte ESCAPE = '\\';
+
+    private final FileChannel channel;
+    private final MappedByteBuffer bytes;
+    private final int length;
+    private int position;
+
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private boolean[] fieldEscaped = new boolean[16];
+    private int fieldCount;
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Opens and maps the given file.
+     *
+     * @param file the file to scan
+     * @throws IOException if the file cannot be opened or is too large to map
+     */
+    public MappedCSVScanner(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("File too large to map: " + file);
+        }
+        this.length = (int) size;
+        this.bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean next() {
+        fieldCount = 0;
+
+        while (position < length) {
+            byte b = bytes.get(position);
+            if (b == '\n' || b == '\r') {
+                position++;
+            } else {
+                scanRow();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records the field boundaries of the row starting at the current position
+     * and moves the position past its line ending.
+     */
+    private void scanRow() {
+        int start = position;
+        boolean atFieldStart = true;
+        boolean inQuotes = false;
+        boolean escaped = false;
+
+        while (position < length) {
+            byte b = bytes.get(position);
+
+            if (inQuotes) {
+                if (b == QUOTE) {
+                    if (position + 1 < length && bytes.get(position + 1) == QUOTE) {
+                        position++;
+                    } else {
+                        inQuotes = false;
+                    }
+                }
+            } else if (b == '\n' || b == '\r') {
+                addField(start, position, escaped);
+                position++;
+                if (b == '\r' && position < length && bytes.get(position) == '\n') {
+                    position++;
+                }
+                return;
+            } else if (b == DELIMITER) {
+                addField(start, position, escaped);
+                position++;
+                start = position;
+                atFieldStart = true;
+                escaped = false;
+                continue;
+            } else if (b == QUOTE && atFieldStart) {
+                inQuotes = true;
+                escaped = true;
+            } else if (b == ESCAPE && position + 1 < length && bytes.get(position + 1) == DELIMITER) {
+                position++;
+                escaped = true;
+            }
+
+            atFieldStart = false;
+            position++;
+        }
+
+        addField(start, position, escaped);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return fieldCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " of " + fieldCount);
+        }
+
+        int start = fieldStarts[index];
+        int end = fieldEnds[index];
+        int count = fieldEscaped[index] ? unescape(start, end) : copy(start, end);
+        return new String(scratch, 0, count, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Closes the file channel. The mapping itself is released when the scanner is garbage collected.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void addField(int start, int end, boolean escaped) {
+        if (fieldCount == fieldStarts.length) {
+            int capacity = fieldStarts.length * 2;
+            fieldStarts = Arrays.copyOf(fieldStarts, capacity);
+            fieldEnds = Arrays.copyOf(fieldEnds, capacity);
+            fieldEscaped = Arrays.copyOf(fieldEscaped, capacity);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldEscaped[fieldCount] = escaped;
+        fieldCount++;
+    }
+
+    private int copy(int start, int end) {
+        int count = end - start;
+        ensureScratch(count);
+        bytes.get(start, scratch, 0, count);
+        return count;
+    }
+
+    /**
+     * Copies a field into the scratch buffer with quotes and escapes removed.
+     * Quote, delimiter and backslash are single-byte in UTF-8, so this is safe to do before decoding.
+     */
+    private int unescape(int start, int end) {
+        ensureScratch(end - start);
+        int count = 0;
+        boolean atFieldStart = true;
+        boolean inQuotes = false;
+        int p = start;
+
+        while (p < end) {
+            byte b = bytes.get(p);
+            if (inQuotes) {
+                if (b == QUOTE) {
+                    if (p + 1 < end && bytes.get(p + 1) == QUOTE) {
+                        scratch[count++] = QUOTE;
+                        p += 2;
+                    } else {
+                        inQuotes = false;
+                        p++;
+                    }
+                    continue;
+                }
+                scratch[count++] = b;
+            } else if (b == QUOTE && atFieldStart) {
+                inQuotes = true;
+            } else if (b == ESCAPE && p + 1 < end && bytes.get(p + 1) == DELIMITER) {
+                scratch[count++] = DELIMITER;
+                p++;
+            } else {
+                scratch[count++] = b;
+            }
+            atFieldStart = false;
+            p++;
+        }
+        return count;
+    }
+
+    private void ensureScratch(int capacity) {
+        if (scratch.length < capacity) {
+            scratch = new byte[Math.max(capacity, scratch.length * 2)];
+        }
+    }
+}
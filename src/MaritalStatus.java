@@ -0,0 +1,88 @@
+package src;
+
+import java.util.Locale;
+
+/**
+ * Marital status of a user, which together with age decides the flat types
+ * an applicant may apply for.
+ */
+public enum MaritalStatus {
+    /**
+     * Single applicants aged 35 and above may apply for 2-room flats.
+     */
+    SINGLE("Single", 35, FlatType.TWO_ROOM.mask()),
+
+    /**
+     * Married applicants aged 21 and above may apply for any flat type.
+     */
+    MARRIED("Married", 21, FlatType.allMask()),
+
+    /**
+     * Any other marital status found in the data files; such users may not apply
+     * for any flat type.
+     */
+    OTHER("Other", 0, 0);
+
+    private final String label;
+    private final int minimumAge;
+    private final int flatTypes;
+
+    MaritalStatus(String label, int minimumAge, int flatTypes) {
+        this.label = label;
+        this.minimumAge = minimumAge;
+        this.flatTypes = flatTypes;
+    }
+
+    /**
+     * Returns the flat types an applicant with this marital status and the given age
+     * may apply for.
+     *
+     * @param age the applicant's age
+     * @return a bitmask of {@link FlatType#mask()} values, 0 if not eligible for any
+     */
+    public int eligibleFlatTypes(int age) {
+        return age >= minimumAge ? flatTypes : 0;
+    }
+
+    /**
+     * Parses a marital status, ignoring case and surrounding whitespace.
+     *
+     * @param text the marital status as written in the data files or typed by a user
+     * @return the marital status
+     * @throws IllegalArgumentException if the text is not a known marital status
+     */
+    public static MaritalStatus parse(String text) {
+        String key = text.trim().toUpperCase(Locale.ROOT);
+        for (MaritalStatus status : values()) {
+            if (status.name().equals(key)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown marital status: " + text);
+    }
+
+    /**
+     * Parses a marital status like {@link #parse}, but returns {@link #OTHER} instead of
+     * failing when the text is not a known marital status.
+     *
+     * @param text the marital status as written in the data files
+     * @return the marital status, or {@link #OTHER} if it is not known
+     */
+    public static MaritalStatus parseOrOther(String text) {
+        try {
+            return parse(text);
+        } catch (IllegalArgumentException e) {
+            return OTHER;
+        }
+    }
+
+    /**
+     * Returns the marital status as written in the data files.
+     *
+     * @return the label, such as "Single"
+     */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
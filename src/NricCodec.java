@@ -0,0 +1,182 @@
+package src;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Packs NRICs into a single {@code long}, so that they can be compared and hashed as
+ * numbers and used as keys of a {@link LongHashMap} without keeping a String per key.
+ *
+ * An NRIC in the standard form, a prefix letter, seven digits and a check letter, is
+ * packed as {@code prefix << 29 | digits << 5 | check}, with letters numbered from 1.
+ * Other identifiers of up to {@value #MAX_OTHER_LENGTH} letters and digits are packed in
+ * base 37 with bit 62 set, so every NRIC the system has accepted so far still gets a key.
+ * Letters are case-insensitive and surrounding whitespace is ignored, so the key of an
+ * NRIC does not depend on how it was typed.
+ *
+ * Any other NRIC a user was created with, such as one with punctuation or a long one,
+ * is given a fallback key by {@link #register} from a table kept for the life of the
+ * process, so every user still gets a key of its own and can be found and log in.
+ * Fallback keys have bit 61 set and are not stable across runs, so they are never saved.
+ */
+public final class NricCodec {
+
+    /** Returned by {@link #encode} for strings that cannot be packed. */
+    public static final long INVALID = -1L;
+
+    private static final int MAX_OTHER_LENGTH = 11;
+    private static final long OTHER_FLAG = 1L << 62;
+    private static final int DIGITS = 7;
+    private static final long FALLBACK_FLAG = 1L << 61;
+
+    private static final Map<String, Long> fallbackKeys = new ConcurrentHashMap<>();
+    private static final Map<Long, String> fallbackNrics = new ConcurrentHashMap<>();
+    private static final AtomicLong nextFallback = new AtomicLong();
+
+    private NricCodec() {
+    }
+
+    /**
+     * Packs an NRIC into a long. An NRIC that cannot be packed has a key only if a user
+     * was created with it, in which case its fallback key is returned.
+     *
+     * @param nric the NRIC, in any case
+     * @return the packed NRIC, or {@link #INVALID} if it cannot be packed and has no
+     *         fallback key
+     */
+    public static long encode(String nric) {
+        if (nric == null) {
+            return INVALID;
+        }
+        String s = nric.trim();
+        long standard = encodeStandard(s);
+        if (standard != INVALID) {
+            return standard;
+        }
+        long other = encodeOther(s);
+        if (other != INVALID) {
+            return other;
+        }
+        Long fallback = fallbackKeys.get(s.toUpperCase(Locale.ROOT));
+        return fallback == null ? INVALID : fallback;
+    }
+
+    /**
+     * Returns the key of an NRIC a user is being created with, giving it a fallback key
+     * if it cannot be packed.
+     *
+     * @param nric the NRIC, in any case
+     * @return the NRIC's key, or {@link #INVALID} if the NRIC is null
+     */
+    public static long register(String nric) {
+        long key = encode(nric);
+        if (key != INVALID || nric == null) {
+            return key;
+        }
+        String s = nric.trim().toUpperCase(Locale.ROOT);
+        return fallbackKeys.computeIfAbsent(s, k -> {
+            long fallback = FALLBACK_FLAG | nextFallback.getAndIncrement();
+            fallbackNrics.put(fallback, k);
+            return fallback;
+        });
+    }
+
+    /**
+     * Unpacks an NRIC packed by {@link #encode}.
+     *
+     * @param key the packed NRIC
+     * @return the NRIC in upper case
+     * @throws IllegalArgumentException if the key was not produced by {@link #encode}
+     *                                  or {@link #register}
+     */
+    public static String decode(long key) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Not a packed NRIC: " + key);
+        }
+        if ((key & FALLBACK_FLAG) != 0) {
+            String nric = fallbackNrics.get(key);
+            if (nric == null) {
+                throw new IllegalArgumentException("Not a packed NRIC: " + key);
+            }
+            return nric;
+        }
+        if ((key & OTHER_FLAG) != 0) {
+            return decodeOther(key & ~OTHER_FLAG);
+        }
+        int prefix = (int) (key >>> 29);
+        int digits = (int) ((key >>> 5) & 0xFFFFFF);
+        int check = (int) (key & 0x1F);
+        if (prefix < 1 || prefix > 26 || check < 1 || check > 26 || digits > 9_999_999) {
+            throw new IllegalArgumentException("Not a packed NRIC: " + key);
+        }
+        StringBuilder sb = new StringBuilder(DIGITS + 2);
+        sb.append((char) ('A' + prefix - 1));
+        String number = Integer.toString(digits);
+        for (int i = number.length(); i < DIGITS; i++) {
+            sb.append('0');
+        }
+        return sb.append(number).append((char) ('A' + check - 1)).toString();
+    }
+
+    private static long encodeStandard(String s) {
+        if (s.length() != DIGITS + 2) {
+            return INVALID;
+        }
+        int prefix = letter(s.charAt(0));
+        int check = letter(s.charAt(DIGITS + 1));
+        if (prefix == 0 || check == 0) {
+            return INVALID;
+        }
+        int digits = 0;
+        for (int i = 1; i <= DIGITS; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return INVALID;
+            }
+            digits = digits * 10 + (c - '0');
+        }
+        return (long) prefix << 29 | (long) digits << 5 | check;
+    }
+
+    private static long encodeOther(String s) {
+        if (s.isEmpty() || s.length() > MAX_OTHER_LENGTH) {
+            return INVALID;
+        }
+        long key = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0' + 1;
+            } else if (letter(c) != 0) {
+                value = letter(c) + 10;
+            } else {
+                return INVALID;
+            }
+            key = key * 37 + value;
+        }
+        return key | OTHER_FLAG;
+    }
+
+    private static String decodeOther(long key) {
+        StringBuilder sb = new StringBuilder(MAX_OTHER_LENGTH);
+        while (key > 0) {
+            int value = (int) (key % 37);
+            sb.append(value <= 10 ? (char) ('0' + value - 1) : (char) ('A' + value - 11));
+            key /= 37;
+        }
+        return sb.reverse().toString();
+    }
+
+    private static int letter(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 1;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        return 0;
+    }
+}
@@ -8,20 +8,20 @@ import java.util.List;
  * and viewing current officer registrations.
  */
 public class OfficerController {
-    private List<OfficerRegistration> registrations;
+    private RegistrationStore registrations;
 
     /**
-     * Constructs an OfficerController with the provided list of registrations.
+     * Constructs an OfficerController with the provided store of registrations.
      *
-     * @param registrations the list of all officer registrations
+     * @param registrations the store of all officer registrations
      */
-    public OfficerController(List<OfficerRegistration> registrations) {
+    public OfficerController(RegistrationStore registrations) {
         this.registrations = registrations;
     }
 
     /**
      * Allows an officer to register for a project, with checks to avoid
-     * duplicate applications and overlapping project periods.
+     * duplicate applications and registrations and overlapping project periods.
      *
      * @param officer the officer attempting to register
      * @param project the project they want to register for
@@ -32,17 +32,18 @@ public class OfficerController {
             return;
         }
 
-        for (OfficerRegistration reg : registrations) {
-            if (reg.getOfficer().getNric().equals(officer.getNric())
-                && reg.getStatus() == OfficerRegistration.Status.APPROVED
-                && datesOverlap(reg.getProject(), project)) {
-                System.out.println("You are already handling another project in the same application period.");
-                return;
-            }
+        if (registrations.hasApprovedOverlap(officer, project.getOpenDate(), project.getCloseDate())) {
+            System.out.println("You are already handling another project in the same application period.");
+            return;
         }
 
         OfficerRegistration reg = new OfficerRegistration(officer, project);
-        registrations.add(reg);
+        if (!registrations.addIfAbsent(reg)) {
+            System.out.println("You have already registered for this project.");
+            return;
+        }
+        ChangeTracker.markDirty(ChangeTracker.Dataset.REGISTRATIONS);
+        Journal.getInstance().recordRegistrationAdded(reg);
         System.out.println("Registration submitted. Awaiting approval.");
     }
 
@@ -52,14 +53,11 @@ public class OfficerController {
      * @param officer the officer whose registrations are to be shown
      */
     public void viewMyRegistration(HDBOfficer officer) {
-        boolean found = false;
-        for (OfficerRegistration reg : registrations) {
-            if (reg.getOfficer().getNric().equals(officer.getNric())) {
-                System.out.println(reg);
-                found = true;
-            }
+        List<OfficerRegistration> mine = registrations.findByOfficer(officer);
+        for (OfficerRegistration reg : mine) {
+            System.out.println(reg);
         }
-        if (!found) System.out.println("No registration found");
+        if (mine.isEmpty()) System.out.println("No registration found");
     }
 
     /**
@@ -70,6 +68,7 @@ public class OfficerController {
     public void approveRegistration(OfficerRegistration reg) {
         reg.setStatus(OfficerRegistration.Status.APPROVED);
         reg.getOfficer().assignHandledProject(reg.getProject());
+        Journal.getInstance().recordRegistrationStatus(reg);
     }
 
     /**
@@ -79,25 +78,15 @@ public class OfficerController {
      */
     public void rejectRegistration(OfficerRegistration reg) {
         reg.setStatus(OfficerRegistration.Status.REJECTED);
+        Journal.getInstance().recordRegistrationStatus(reg);
     }
 
     /**
-     * Returns the list of all officer registrations.
+     * Returns the store of all officer registrations.
      *
-     * @return the list of registrations
+     * @return the registrations
      */
-    public List<OfficerRegistration> getRegistrations() {
+    public RegistrationStore getRegistrations() {
         return registrations;
     }
-
-    /**
-     * Helper method to check if two project periods overlap.
-     *
-     * @param p1 first project
-     * @param p2 second project
-     * @return true if the project dates overlap, false otherwise
-     */
-    private boolean datesOverlap(Project p1, Project p2) {
-        return !p1.getCloseDate().isBefore(p2.getOpenDate()) && !p1.getOpenDate().isAfter(p2.getCloseDate());
-    }
 }
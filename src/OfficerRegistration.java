@@ -12,9 +12,23 @@ public class OfficerRegistration {
         PENDING, APPROVED, REJECTED
     }
 
+    /**
+     * Listener notified whenever the status of a registration changes.
+     */
+    public interface StatusListener {
+        /**
+         * Called after the status of a registration has changed.
+         *
+         * @param reg       the registration
+         * @param oldStatus the status before the change
+         */
+        void statusChanged(OfficerRegistration reg, Status oldStatus);
+    }
+
     private HDBOfficer officer;
     private Project project;
     private Status status;
+    private StatusListener statusListener;
 
     /**
      * Constructs a new OfficerRegistration with a default status of PENDING.
@@ -61,7 +75,21 @@ public class OfficerRegistration {
      * @param status the new status to assign
      */
     public void setStatus(Status status) {
+        Status oldStatus = this.status;
         this.status = status;
+        ChangeTracker.markDirty(ChangeTracker.Dataset.REGISTRATIONS);
+        if (statusListener != null && oldStatus != status) {
+            statusListener.statusChanged(this, oldStatus);
+        }
+    }
+
+    /**
+     * Sets the listener notified of status changes, replacing any previous one.
+     *
+     * @param listener the listener, or null for none
+     */
+    void setStatusListener(StatusListener listener) {
+        this.statusListener = listener;
     }
 
     /**
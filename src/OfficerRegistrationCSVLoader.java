@@ -1,6 +1,6 @@
 package src;
 
-import java.io.*;
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -14,49 +14,59 @@ public class OfficerRegistrationCSVLoader extends DataReader {
      *
      * @param filePath       the file path to save the CSV to
      * @param registrations  the list of officer registrations
+     * @return true if the file was written successfully
      */
-    public void saveRegistrationsToCSV(String filePath, List<OfficerRegistration> registrations) {
-        try (PrintWriter out = new PrintWriter(new FileWriter(filePath))) {
-            out.println("OfficerNRIC;ProjectName;Status");
-            for (OfficerRegistration reg : registrations) {
-                out.println(String.join(";",
-                    reg.getOfficer().getNric(),
-                    reg.getProject().getName(),
-                    reg.getStatus().name()
-                ));
+    public boolean saveRegistrationsToCSV(String filePath, List<OfficerRegistration> registrations) {
+        try (AtomicFileWriter out = new AtomicFileWriter(filePath)) {
+            for (String line : formatRegistrationsAsCSV(registrations)) {
+                out.println(line);
             }
+            out.commit();
             System.out.println("Officer registrations saved to " + filePath);
+            return true;
         } catch (IOException e) {
             System.err.println("Error saving officer registrations:");
             e.printStackTrace();
+            return false;
         }
     }
 
+    /**
+     * Formats the list of officer registrations as CSV lines, starting with the header.
+     *
+     * @param registrations  the list of officer registrations
+     * @return the lines of the CSV file
+     */
+    public List<String> formatRegistrationsAsCSV(List<OfficerRegistration> registrations) {
+        List<String> lines = new ArrayList<>(registrations.size() + 1);
+        lines.add("OfficerNRIC;ProjectName;Status");
+        for (OfficerRegistration reg : registrations) {
+            lines.add(formatCSVRow(
+                reg.getOfficer().getNric(),
+                reg.getProject().getName(),
+                reg.getStatus().name()
+            ));
+        }
+        return lines;
+    }
+
     /**
      * Loads officer registrations from a CSV file.
      *
      * @param filePath     the path to the CSV file
-     * @param allOfficers  the list of all available officers for reference
-     * @param allProjects  the list of all projects for reference
+     * @param symbols      the symbol table of loaded officers and projects
      * @return the list of loaded officer registrations
      */
-    public List<OfficerRegistration> loadRegistrationsFromCSV(
-        String filePath,
-        List<HDBOfficer> allOfficers,
-        List<Project> allProjects
-    ) {
+    public List<OfficerRegistration> loadRegistrationsFromCSV(String filePath, SymbolTable symbols) {
         List<OfficerRegistration> registrations = new ArrayList<>();
-        List<String[]> rows = readCSVFile(filePath);
-
-        for (int i = 1; i < rows.size(); i++) {
+        streamCSVFile(filePath, (row, i) -> {
             try {
-                String[] row = rows.get(i);
-                String officerNric = row[0].trim();
-                String projectName = row[1].trim();
-                String statusStr = row[2].trim();
+                String officerNric = row.get(0).trim();
+                String projectName = row.get(1).trim();
+                String statusStr = row.get(2).trim();
 
-                HDBOfficer officer = findOfficerByNric(officerNric, allOfficers);
-                Project project = findProjectByName(projectName, allProjects);
+                HDBOfficer officer = symbols.findOfficer(officerNric);
+                Project project = symbols.findProject(projectName);
                 OfficerRegistration.Status status = OfficerRegistration.Status.valueOf(statusStr);
 
                 if (officer != null && project != null) {
@@ -69,36 +79,8 @@ public class OfficerRegistrationCSVLoader extends DataReader {
             } catch (Exception e) {
                 System.out.println("Error parsing officer registration row " + i + ": " + e.getMessage());
             }
-        }
+        });
 
         return registrations;
     }
-
-    /**
-     * Finds an officer by NRIC from a list.
-     *
-     * @param nric      the NRIC to search for
-     * @param officers  the list of all officers
-     * @return the matching officer or null if not found
-     */
-    private HDBOfficer findOfficerByNric(String nric, List<HDBOfficer> officers) {
-        for (HDBOfficer o : officers) {
-            if (o.getNric().equalsIgnoreCase(nric)) return o;
-        }
-        return null;
-    }
-
-    /**
-     * Finds a project by name from a list.
-     *
-     * @param name      the name of the project to search for
-     * @param projects  the list of all projects
-     * @return the matching project or null if not found
-     */
-    private Project findProjectByName(String name, List<Project> projects) {
-        for (Project p : projects) {
-            if (p.getName().equalsIgnoreCase(name)) return p;
-        }
-        return null;
-    }
 }
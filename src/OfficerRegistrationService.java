@@ -1,6 +1,5 @@
 package src;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
@@ -21,11 +20,9 @@ public class OfficerRegistrationService {
         System.out.println("\\n== Officer Registrations ==");
         boolean found = false;
 
-        for (OfficerRegistration r : officerController.getRegistrations()) {
-            if (r.getProject().getManagerInCharge().getNric().equals(manager.getNric())) {
-                System.out.println(r);
-                found = true;
-            }
+        for (OfficerRegistration r : officerController.getRegistrations().findByManager(manager.getNric())) {
+            System.out.println(r);
+            found = true;
         }
 
         if (!found) {
@@ -41,14 +38,7 @@ public class OfficerRegistrationService {
      * @param sc                 the scanner to receive user input
      */
     public void approveRegistrations(HDBManager manager, OfficerController officerController, Scanner sc) {
-        List<OfficerRegistration> pending = new ArrayList<>();
-
-        for (OfficerRegistration r : officerController.getRegistrations()) {
-            if (r.getProject().getManagerInCharge().getNric().equals(manager.getNric())
-                    && r.getStatus() == OfficerRegistration.Status.PENDING) {
-                pending.add(r);
-            }
-        }
+        List<OfficerRegistration> pending = officerController.getRegistrations().findPendingByManager(manager.getNric());
 
         if (pending.isEmpty()) {
             System.out.println("No pending registrations.");
@@ -81,6 +71,7 @@ public class OfficerRegistrationService {
                 officer.assignHandledProject(project);
 
                 officerController.approveRegistration(selected);
+                Journal.getInstance().recordProject(project);
                 System.out.println("Officer registration approved and assigned to project.");
             } else {
                 System.out.println("Cancelled or invalid.");
@@ -91,7 +82,7 @@ public class OfficerRegistrationService {
 
             if (choice >= 0 && choice < pending.size()) {
                 OfficerRegistration selected = pending.get(choice);
-                selected.setStatus(OfficerRegistration.Status.REJECTED);
+                officerController.rejectRegistration(selected);
                 System.out.println("Officer registration has been rejected.");
             }
         } else {
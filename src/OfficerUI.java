@@ -31,7 +31,8 @@ public class OfficerUI {
      * @param projectCtrl     Project controller
      * @param applicationCtrl Application controller
      * @param enquiryCtrl     Enquiry controller
-     * @param allApplicants   List of all applicants in the system
+     * @param enquiries       Store of all enquiries
+     * @param users           Registry of all users, for NRIC lookups
      */
     public void showDashboard(Scanner sc,
                               List<Application> allApplications,
@@ -39,7 +40,8 @@ public class OfficerUI {
                               ProjectController projectCtrl,
                               ApplicationController applicationCtrl,
                               EnquiryController enquiryCtrl,
-                              List<Applicant> allApplicants) {
+                              EnquiryStore enquiries,
+                              UserRegistry users) {
         while (true) {
             System.out.println("\nOfficer Dashboard");
             System.out.println("1. View Applications");
@@ -57,7 +59,7 @@ public class OfficerUI {
 
             switch (choice) {
                 case 1 -> officer.viewApplications(allApplications);
-                case 2 -> officer.bookFlat(sc, allApplications);
+                case 2 -> officer.bookFlat(sc, users);
                 case 3 -> {
                     projectCtrl.viewAllProjects();
                     System.out.print("Enter project name to register: ");
@@ -78,11 +80,11 @@ public class OfficerUI {
                         handled.forEach(System.out::println);
                     }
                 }
-                case 6 -> officer.enquiryMenu(sc, allApplicants);
+                case 6 -> officer.enquiryMenu(sc, enquiries);
                 case 7 -> {
                     System.out.print("Enter applicant NRIC: ");
                     String nric = sc.nextLine();
-                    officer.generateReceiptByNric(nric, allApplicants);
+                    officer.generateReceiptByNric(nric, users);
                 }
                 case 8 -> {
                     ApplicantUI applicantUI = new ApplicantUI(projectCtrl, applicationCtrl, enquiryCtrl);
@@ -0,0 +1,158 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists the changes of each session on a dedicated background thread, so the
+ * login loop never waits on disk.
+ * When a session ends, the writer is notified through {@link #sessionEnded(DataStore)}.
+ * The journal is then committed in the background. When the data files need rewriting
+ * (the journal is closed, too large, or failed to commit) the journal is rotated and the
+ * dirty datasets are captured in memory, and the captured files are written in the
+ * background too. Captured files are coalesced by path: if several sessions end before
+ * the writer catches up, each file is written once with its latest contents.
+ */
+public class PersistenceWriter {
+    private final DataSaver saver;
+    private final Journal journal;
+    private final Map<String, DataSaver.DataFile> pendingFiles = new LinkedHashMap<>();
+    private boolean commitRequested;
+    private boolean rotationPending;
+    private int capturesInProgress;
+    private boolean busy;
+    private volatile boolean rewriteNeeded;
+
+    /**
+     * Constructs a writer and starts its background thread.
+     *
+     * @param saver   the saver used to capture and write data files
+     * @param journal the journal of changes not yet in the data files
+     */
+    public PersistenceWriter(DataSaver saver, Journal journal) {
+        this.saver = saver;
+        this.journal = journal;
+        Thread thread = new Thread(this::run, "persistence-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Notifies the writer that a session has ended and its changes should be persisted.
+     * Only in-memory work is done on the calling thread.
+     *
+     * When the data files need rewriting, the journal is rotated before the dirty datasets
+     * are captured. Every record in the rotated journal was appended after its change was
+     * made, so the change is already in the stores when they are captured; records appended
+     * later go to the new journal. The rotated journal is kept until the files captured
+     * after every rotation into it have been written.
+     *
+     * @param data the data changed by the session
+     */
+    public void sessionEnded(DataStore data) {
+        boolean rewrite = !journal.isOpen() || journal.needsCompaction() || rewriteNeeded;
+        boolean rotated = false;
+        if (rewrite) {
+            rewriteNeeded = false;
+            synchronized (this) {
+                rotated = journal.rotate();
+                capturesInProgress++;
+            }
+        }
+        List<DataSaver.DataFile> files = List.of();
+        try {
+            if (rewrite) {
+                files = saver.captureDirty(data);
+            }
+        } finally {
+            synchronized (this) {
+                if (rewrite) {
+                    capturesInProgress--;
+                }
+                commitRequested |= journal.isOpen();
+                for (DataSaver.DataFile file : files) {
+                    pendingFiles.put(file.getPath(), file);
+                }
+                rotationPending |= rotated;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until every change notified so far has been persisted.
+     *
+     * @return true if everything was persisted successfully
+     */
+    public synchronized boolean flush() {
+        try {
+            while (commitRequested || !pendingFiles.isEmpty() || busy) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return !rewriteNeeded;
+    }
+
+    /**
+     * Waits for pending writes to finish, then closes the journal. Used at shutdown.
+     */
+    public void close() {
+        flush();
+        journal.close();
+    }
+
+    /**
+     * Background loop: takes every pending request at once, commits the journal,
+     * writes the captured files and, once they are saved, discards the rotated journal.
+     */
+    private void run() {
+        while (true) {
+            boolean commit;
+            boolean discardRotated;
+            List<DataSaver.DataFile> files;
+            synchronized (this) {
+                busy = false;
+                notifyAll();
+                try {
+                    while (!commitRequested && pendingFiles.isEmpty()) {
+                        wait();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                commit = commitRequested;
+                discardRotated = rotationPending;
+                files = new ArrayList<>(pendingFiles.values());
+                commitRequested = false;
+                rotationPending = false;
+                pendingFiles.clear();
+                busy = true;
+            }
+
+            if (commit && !journal.commit()) {
+                rewriteNeeded = true;
+            }
+
+            boolean written = true;
+            for (DataSaver.DataFile file : files) {
+                written &= saver.write(file);
+            }
+            if (!written) {
+                rewriteNeeded = true;
+            } else if (discardRotated) {
+                synchronized (this) {
+                    // A rotation since this batch was taken added records to the rotated
+                    // journal whose files are not written yet; a later batch discards it.
+                    if (!rotationPending && capturesInProgress == 0 && !rewriteNeeded) {
+                        journal.discardRotated();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -2,22 +2,36 @@ package src;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
 
 /**
  * Represents a Build-To-Order (BTO) housing project with details such as
  * name, location, unit availability, officers in charge, and visibility status.
  */
 public class Project {
+
+    /**
+     * Listener notified whenever a detail shown in project listings changes,
+     * namely the unit counts or the visibility.
+     */
+    public interface ListingListener {
+        /**
+         * Called after a listed detail of a project has changed.
+         *
+         * @param project the project
+         */
+        void listingChanged(Project project);
+    }
+
     private String name;
     private String neighborhood;
-    private HashMap<FlatType, Integer> flatAvailability;
+    private final FlatInventory inventory;
     private LocalDate openDate;
     private LocalDate closeDate;
     private HDBManager managerInCharge;
     private boolean isVisible;
     private int officerSlots;
     private ArrayList<HDBOfficer> officerInCharge;
+    private ListingListener listingListener;
 
     /**
      * Constructs a new Project.
@@ -34,9 +48,7 @@ public class Project {
                    HDBManager managerInCharge, boolean isVisible, int officerSlots) {
         this.name = name;
         this.neighborhood = neighborhood;
-        this.flatAvailability = new HashMap<>();
-        this.flatAvailability.put(FlatType.TWO_ROOM, 0);
-        this.flatAvailability.put(FlatType.THREE_ROOM, 0);
+        this.inventory = new FlatInventory(this::availableUnitsChanged);
         this.openDate = openDate;
         this.closeDate = closeDate;
         this.managerInCharge = managerInCharge;
@@ -53,6 +65,7 @@ public class Project {
     public void addOfficerInCharge(HDBOfficer officer) {
         if (!officerInCharge.contains(officer)) {
             officerInCharge.add(officer);
+            ChangeTracker.markDirty(ChangeTracker.Dataset.PROJECTS);
         }
     }
 
@@ -72,7 +85,16 @@ public class Project {
      * @param count Number of available units
      */
     public void setFlatUnits(FlatType type, int count) {
-        flatAvailability.put(type, count);
+        inventory.setAvailable(type, count);
+    }
+
+    /**
+     * Returns the unit inventory of this project, used to reserve, book and give back units.
+     *
+     * @return the inventory
+     */
+    public FlatInventory getInventory() {
+        return inventory;
     }
 
     /**
@@ -91,6 +113,7 @@ public class Project {
      */
     public void setOfficerInCharge(ArrayList<HDBOfficer> officerInCharge) {
         this.officerInCharge = officerInCharge;
+        ChangeTracker.markDirty(ChangeTracker.Dataset.PROJECTS);
     }
 
     /**
@@ -109,6 +132,7 @@ public class Project {
      */
     public void setOfficerSlots(int officerSlots) {
         this.officerSlots = officerSlots;
+        ChangeTracker.markDirty(ChangeTracker.Dataset.PROJECTS);
     }
 
     /**
@@ -154,7 +178,7 @@ public class Project {
      * @return Number of units available
      */
     public int getAvailableUnits(FlatType type) {
-        return flatAvailability.getOrDefault(type, 0);
+        return inventory.getAvailable(type);
     }
 
     /**
@@ -171,6 +195,28 @@ public class Project {
      */
     public void toggleVisibility() {
         this.isVisible = !this.isVisible;
+        ChangeTracker.markDirty(ChangeTracker.Dataset.PROJECTS);
+        notifyListingChanged();
+    }
+
+    /**
+     * Sets the listener notified of changes to listed details, replacing any previous one.
+     *
+     * @param listener the listener, or null for none
+     */
+    void setListingListener(ListingListener listener) {
+        this.listingListener = listener;
+    }
+
+    private void availableUnitsChanged() {
+        ChangeTracker.markDirty(ChangeTracker.Dataset.PROJECTS);
+        notifyListingChanged();
+    }
+
+    private void notifyListingChanged() {
+        if (listingListener != null) {
+            listingListener.listingChanged(this);
+        }
     }
 
     /**
@@ -180,8 +226,8 @@ public class Project {
      */
     public String toString() {
         return name + " at " + neighborhood + " (Open: " + openDate + " to " + closeDate + ")"
-                + "\n2-Room: " + flatAvailability.get(FlatType.TWO_ROOM)
-                + ", 3-Room: " + flatAvailability.get(FlatType.THREE_ROOM)
+                + "\n2-Room: " + inventory.getAvailable(FlatType.TWO_ROOM)
+                + ", 3-Room: " + inventory.getAvailable(FlatType.THREE_ROOM)
                 + "\nVisible: " + isVisible;
     }
 }
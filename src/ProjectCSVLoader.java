@@ -1,8 +1,6 @@
 package src;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -12,65 +10,70 @@ import java.util.List;
  * Handles loading and saving of Project data to and from CSV files.
  */
 public class ProjectCSVLoader extends DataReader {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     /**
      * Loads project data from a CSV file and populates the given project list.
      * 
      * @param projectFile   Path to the CSV file
-     * @param projects      List to populate with Project objects
-     * @param allManagers   List of available HDBManager objects
-     * @param allOfficers   List of available HDBOfficer objects
+     * @param projects      Catalog to populate with Project objects
+     * @param symbols       Symbol table of loaded users, resolving projects through the same catalog
      */
-    public void loadProjectsFromCSV(
-        String projectFile,
-        List<Project> projects,
-        List<HDBManager> allManagers,
-        List<HDBOfficer> allOfficers
-    ) {
-        List<String[]> projectRows = readCSVFile(projectFile);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
-        for (int i = 1; i < projectRows.size(); i++) {
+    public void loadProjectsFromCSV(String projectFile, ProjectCatalog projects, SymbolTable symbols) {
+        streamCSVFile(projectFile, (row, i) -> {
             try {
-                String[] row = projectRows.get(i);
-
-                String name = row[0].trim();
-                String neighborhood = row[1].trim();
-                int twoRoom = Integer.parseInt(row[2].trim());
-                int threeRoom = Integer.parseInt(row[3].trim());
-                LocalDate open = LocalDate.parse(row[4].trim(), formatter);
-                LocalDate close = LocalDate.parse(row[5].trim(), formatter);
-                String managerNric = row[6].trim();
-                int officerSlots = Integer.parseInt(row[7].trim());
-                String officerNricList = row[8].trim();
-                boolean isVisible = "yes".equalsIgnoreCase(row[9].trim());
-
-                HDBManager manager = findManagerByNric(managerNric, allManagers);
-                Project project = new Project(name, neighborhood, open, close, manager, isVisible, officerSlots);
-                project.setFlatUnits(FlatType.TWO_ROOM, twoRoom);
-                project.setFlatUnits(FlatType.THREE_ROOM, threeRoom);
-
-                if (!officerNricList.isEmpty()) {
-                    String[] officerNrics = officerNricList.split(",");
-                    ArrayList<HDBOfficer> matchedOfficers = new ArrayList<>();
-                    for (String officerNric : officerNrics) {
-                        HDBOfficer officer = findOfficerByNric(officerNric.trim(), allOfficers);
-                        if (officer != null) {
-                            matchedOfficers.add(officer);
-                            officer.assignHandledProject(project);
-                        } else {
-                            System.out.println("Warning: Officer not found for NRIC: " + officerNric);
-                        }
-                    }
-                    project.setOfficerInCharge(matchedOfficers);
+                Project project = parseProjectRow(row, symbols);
+                for (HDBOfficer officer : project.getOfficerInCharge()) {
+                    officer.assignHandledProject(project);
                 }
-
                 projects.add(project);
-
             } catch (Exception e) {
                 System.out.println("Error parsing row " + i + ": " + e.getMessage());
             }
+        });
+    }
+
+    /**
+     * Parses a project row in the ProjectList.csv column layout.
+     * Officers in charge are attached to the project, but the project is not
+     * added to the officers' handled projects.
+     *
+     * @param row          The row to parse
+     * @param symbols      Symbol table used to resolve the manager and officers
+     * @return             The parsed project
+     */
+    public Project parseProjectRow(CSVRow row, SymbolTable symbols) {
+        String name = row.get(0).trim();
+        String neighborhood = row.get(1).trim();
+        int twoRoom = Integer.parseInt(row.get(2).trim());
+        int threeRoom = Integer.parseInt(row.get(3).trim());
+        LocalDate open = LocalDate.parse(row.get(4).trim(), DATE_FORMAT);
+        LocalDate close = LocalDate.parse(row.get(5).trim(), DATE_FORMAT);
+        String managerNric = row.get(6).trim();
+        int officerSlots = Integer.parseInt(row.get(7).trim());
+        String officerNricList = row.get(8).trim();
+        boolean isVisible = "yes".equalsIgnoreCase(row.get(9).trim());
+
+        HDBManager manager = symbols.findManager(managerNric);
+        Project project = new Project(name, neighborhood, open, close, manager, isVisible, officerSlots);
+        project.setFlatUnits(FlatType.TWO_ROOM, twoRoom);
+        project.setFlatUnits(FlatType.THREE_ROOM, threeRoom);
+
+        if (!officerNricList.isEmpty()) {
+            String[] officerNrics = officerNricList.split(",");
+            ArrayList<HDBOfficer> matchedOfficers = new ArrayList<>();
+            for (String officerNric : officerNrics) {
+                HDBOfficer officer = symbols.findOfficer(officerNric);
+                if (officer != null) {
+                    matchedOfficers.add(officer);
+                } else {
+                    System.out.println("Warning: Officer not found for NRIC: " + officerNric);
+                }
+            }
+            project.setOfficerInCharge(matchedOfficers);
         }
+
+        return project;
     }
 
     /**
@@ -78,19 +81,36 @@ public class ProjectCSVLoader extends DataReader {
      * 
      * @param filePath  Path to the output CSV file
      * @param projects  List of projects to save
+     * @return true if the file was written successfully
      */
-    public void saveProjectsToCSV(String filePath, List<Project> projects) {
-        try (PrintWriter out = new PrintWriter(new FileWriter(filePath))) {
-            out.println("ProjectID;Neighborhood;TWO_ROOM;THREE_ROOM;Application Opening Date;Application Closing Date;Manager;Officer Slot;Officer;Visibility");
-
-            for (Project project : projects) {
-                out.println(formatProjectAsCSV(project));
+    public boolean saveProjectsToCSV(String filePath, List<Project> projects) {
+        try (AtomicFileWriter out = new AtomicFileWriter(filePath)) {
+            for (String line : formatProjectsAsCSV(projects)) {
+                out.println(line);
             }
+            out.commit();
             System.out.println("Projects saved successfully to " + filePath);
+            return true;
         } catch (IOException e) {
             System.err.println("Failed to save projects:");
             e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Formats a list of projects as CSV lines, starting with the header.
+     * 
+     * @param projects  List of projects to format
+     * @return          The lines of the CSV file
+     */
+    public List<String> formatProjectsAsCSV(List<Project> projects) {
+        List<String> lines = new ArrayList<>(projects.size() + 1);
+        lines.add("ProjectID;Neighborhood;TWO_ROOM;THREE_ROOM;Application Opening Date;Application Closing Date;Manager;Officer Slot;Officer;Visibility");
+        for (Project project : projects) {
+            lines.add(formatProjectAsCSV(project));
         }
+        return lines;
     }
 
     /**
@@ -99,56 +119,23 @@ public class ProjectCSVLoader extends DataReader {
      * @param project  The project to format
      * @return         Formatted CSV line
      */
-    private String formatProjectAsCSV(Project project) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    public String formatProjectAsCSV(Project project) {
         String officerNrics = project.getOfficerInCharge().stream()
                 .map(HDBOfficer::getNric)
                 .reduce((a, b) -> a + "," + b)
                 .orElse("");
 
-        return String.join(";",
+        return formatCSVRow(
                 project.getName(),
                 project.getNeighborhood(),
                 String.valueOf(project.getAvailableUnits(FlatType.TWO_ROOM)),
                 String.valueOf(project.getAvailableUnits(FlatType.THREE_ROOM)),
-                project.getOpenDate().format(formatter),
-                project.getCloseDate().format(formatter),
+                project.getOpenDate().format(DATE_FORMAT),
+                project.getCloseDate().format(DATE_FORMAT),
                 project.getManagerInCharge() != null ? project.getManagerInCharge().getNric() : "",
                 String.valueOf(project.getOfficerSlots()),
                 officerNrics,
                 project.isVisible() ? "yes" : "no"
         );
     }
-
-    /**
-     * Finds the HDBManager with the given NRIC.
-     * 
-     * @param nric          NRIC to search
-     * @param allManagers   List of managers
-     * @return              Matching HDBManager or null
-     */
-    private HDBManager findManagerByNric(String nric, List<HDBManager> allManagers) {
-        for (HDBManager manager : allManagers) {
-            if (manager.getNric().equals(nric)) {
-                return manager;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Finds the HDBOfficer with the given NRIC.
-     * 
-     * @param nric          NRIC to search
-     * @param allOfficers   List of officers
-     * @return              Matching HDBOfficer or null
-     */
-    private HDBOfficer findOfficerByNric(String nric, List<HDBOfficer> allOfficers) {
-        for (HDBOfficer officer : allOfficers) {
-            if (officer.getNric().equals(nric)) {
-                return officer;
-            }
-        }
-        return null;
-    }
 }
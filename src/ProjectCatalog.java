@@ -0,0 +1,221 @@
+package src;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * The list of all projects, together with an index of the projects by name, an index
+ * of the projects by manager, and an interval tree per manager of the application
+ * periods of their projects. Names are case-folded in the index, so resolving a typed
+ * project name takes constant time, listing a manager's projects takes time proportional
+ * to the number of their projects, and checking whether a manager already runs a project
+ * in a given period takes logarithmic time. Every way of adding or removing a project goes
+ * through this list, which keeps the indexes consistent with it.
+ *
+ * The catalog also keeps a listing version, which changes whenever a project is added or
+ * removed or a project's unit counts or visibility change, so that rendered project
+ * listings can be cached until the version moves on.
+ *
+ * Sessions share one catalog, so its methods are synchronized: a name is checked and
+ * claimed in one step by {@link #addIfAbsent}, and the listing version moves on under
+ * the same lock as the indexes. Listings iterate over a copy, so a manager may create
+ * a project while another session is browsing.
+ */
+public class ProjectCatalog extends AbstractList<Project>
+        implements RandomAccess, Project.ListingListener {
+    private final List<Project> projects = new ArrayList<>();
+    private final Map<String, Project> byName = new HashMap<>();
+    private final LongHashMap<Set<Project>> byManager = new LongHashMap<>();
+    private final LongHashMap<IntervalTree<Project>> periodsByManager = new LongHashMap<>();
+    private long listingVersion;
+
+    /**
+     * Finds a project by name, ignoring case.
+     *
+     * @param name the project name
+     * @return the matching project, or null if not found
+     */
+    public synchronized Project findByName(String name) {
+        return byName.get(key(name));
+    }
+
+    /**
+     * Checks whether a project with the given name exists, ignoring case.
+     *
+     * @param name the project name
+     * @return true if a project has that name
+     */
+    public synchronized boolean containsName(String name) {
+        return byName.containsKey(key(name));
+    }
+
+    /**
+     * Adds a project unless a project with the same name exists, ignoring case. The check
+     * and the add are one step, so two sessions creating a project with the same name
+     * cannot both add it.
+     *
+     * @param project the project to add
+     * @return true if the project was added
+     */
+    public synchronized boolean addIfAbsent(Project project) {
+        if (containsName(project.getName())) {
+            return false;
+        }
+        add(project);
+        return true;
+    }
+
+    /**
+     * Returns the projects the manager with the given NRIC is in charge of, in catalog order.
+     *
+     * @param managerNric the manager's NRIC, in any case
+     * @return a snapshot of the manager's projects
+     */
+    public synchronized List<Project> findByManager(String managerNric) {
+        Set<Project> managed = byManager.get(NricCodec.encode(managerNric));
+        return managed == null ? new ArrayList<>() : new ArrayList<>(managed);
+    }
+
+    /**
+     * Checks whether the manager is in charge of a project whose application period
+     * overlaps the given period.
+     *
+     * @param manager the manager
+     * @param open    the first day of the period
+     * @param close   the last day of the period
+     * @return true if one of the manager's projects overlaps the period
+     */
+    public synchronized boolean hasManagerOverlap(HDBManager manager, LocalDate open, LocalDate close) {
+        IntervalTree<Project> tree = periodsByManager.get(manager.getNricKey());
+        return tree != null && tree.overlaps(open, close);
+    }
+
+    /**
+     * Returns the listing version, which changes whenever what a project listing shows changes.
+     *
+     * @return the current listing version
+     */
+    public synchronized long getListingVersion() {
+        return listingVersion;
+    }
+
+    /**
+     * Moves the listing version on when a project's listed details change.
+     *
+     * @param project the project that changed
+     */
+    @Override
+    public synchronized void listingChanged(Project project) {
+        listingVersion++;
+    }
+
+    @Override
+    public synchronized Project get(int index) {
+        return projects.get(index);
+    }
+
+    @Override
+    public synchronized int size() {
+        return projects.size();
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the list taken under the store's lock, so
+     * iterating never sees a half-applied change made by another session. The iterator
+     * does not support removal.
+     *
+     * @return an iterator over the projects at the time of the call
+     */
+    @Override
+    public synchronized Iterator<Project> iterator() {
+        return Collections.unmodifiableList(new ArrayList<>(projects)).iterator();
+    }
+
+    @Override
+    public synchronized void add(int index, Project project) {
+        projects.add(index, project);
+        index(project);
+    }
+
+    @Override
+    public synchronized Project set(int index, Project project) {
+        Project old = projects.set(index, project);
+        unindex(old);
+        index(project);
+        return old;
+    }
+
+    @Override
+    public synchronized Project remove(int index) {
+        Project project = projects.remove(index);
+        unindex(project);
+        return project;
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+        int index = projects.indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public synchronized int indexOf(Object o) {
+        return projects.indexOf(o);
+    }
+
+    @Override
+    public synchronized boolean contains(Object o) {
+        return projects.contains(o);
+    }
+
+    private void index(Project project) {
+        project.setListingListener(this);
+        listingVersion++;
+        byName.put(key(project.getName()), project);
+        if (project.getManagerInCharge() != null) {
+            long manager = project.getManagerInCharge().getNricKey();
+            byManager.computeIfAbsent(manager, k -> new LinkedHashSet<>()).add(project);
+            periodsByManager.computeIfAbsent(manager, k -> new IntervalTree<>())
+                    .add(project.getOpenDate(), project.getCloseDate(), project);
+        }
+    }
+
+    private void unindex(Project project) {
+        project.setListingListener(null);
+        listingVersion++;
+        byName.remove(key(project.getName()), project);
+        if (project.getManagerInCharge() != null) {
+            long manager = project.getManagerInCharge().getNricKey();
+            Set<Project> managed = byManager.get(manager);
+            if (managed != null && managed.remove(project) && managed.isEmpty()) {
+                byManager.remove(manager);
+            }
+            IntervalTree<Project> tree = periodsByManager.get(manager);
+            if (tree != null && tree.remove(project.getOpenDate(), project.getCloseDate(), project)
+                    && tree.isEmpty()) {
+                periodsByManager.remove(manager);
+            }
+        }
+    }
+
+    /**
+     * Returns the key a project name is indexed by: the name trimmed and case-folded.
+     */
+    static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
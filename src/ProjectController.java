@@ -6,14 +6,16 @@ import java.util.*;
  * Handles logic related to project viewing and lookup for both applicants and officers.
  */
 public class ProjectController {
-    private List<Project> projects;
+    private ProjectCatalog projects;
+    private final String[] listings = new String[FlatType.allMask() + 1];
+    private long listingVersion = -1;
 
     /**
-     * Constructs a ProjectController with a list of all projects.
+     * Constructs a ProjectController with the catalog of all projects.
      *
-     * @param projects The list of projects to manage.
+     * @param projects The catalog of projects to manage.
      */
-    public ProjectController(List<Project> projects) {
+    public ProjectController(ProjectCatalog projects) {
         this.projects = projects;
     }
 
@@ -21,29 +23,62 @@ public class ProjectController {
      * Displays the list of available projects to the applicant based on their eligibility.
      * Single applicants aged 35 and above can see 2-room flats,
      * married applicants aged 21 and above can see both 2-room and 3-room flats.
+     * The listing for each set of eligible flat types is rendered once and reused until
+     * the catalog's listing version changes.
      *
      * @param applicant The applicant viewing the project list.
      */
     public void viewProjectsForApplicant(Applicant applicant) {
         System.out.println("== Available Projects ==");
 
+        int eligible = applicant.getEligibleFlatTypes();
+        if (eligible == 0) {
+            System.out.println("You are not applicable for BTO.");
+            return;
+        }
+        System.out.print(getListing(eligible));
+    }
+
+    /**
+     * Returns the rendered listing of visible projects for the given eligible flat types,
+     * rendering it only if the projects have changed since it was last rendered.
+     *
+     * @param eligible a bitmask of {@link FlatType#mask()} values
+     * @return the listing text
+     */
+    private synchronized String getListing(int eligible) {
+        long version = projects.getListingVersion();
+        if (version != listingVersion) {
+            Arrays.fill(listings, null);
+            listingVersion = version;
+        }
+        String listing = listings[eligible];
+        if (listing == null) {
+            listing = renderListing(eligible);
+            listings[eligible] = listing;
+        }
+        return listing;
+    }
+
+    private String renderListing(int eligible) {
+        StringBuilder sb = new StringBuilder();
         for (Project project : projects) {
             if (!project.isVisible()) continue;
 
-            String projectInfo = project.getName() + " at " + project.getNeighborhood()
-                    + " (Open: " + project.getOpenDate() + " to " + project.getCloseDate() + ")";
-
-            if (applicant.getMaritalStatus().equalsIgnoreCase("single") && applicant.getAge() >= 35) {
-                System.out.println(projectInfo + "\n2-Room: " + project.getAvailableUnits(FlatType.TWO_ROOM));
-                System.out.println("-------------------------");
-            } else if (applicant.getMaritalStatus().equalsIgnoreCase("married") && applicant.getAge() >= 21) {
-                System.out.println(projectInfo + "\n2-Room: " + project.getAvailableUnits(FlatType.TWO_ROOM)
-                        + ", 3-Room: " + project.getAvailableUnits(FlatType.THREE_ROOM));
-                System.out.println("-------------------------");
-            } else {
-                System.out.println("You are not applicable for BTO.");
+            sb.append(project.getName()).append(" at ").append(project.getNeighborhood())
+                    .append(" (Open: ").append(project.getOpenDate())
+                    .append(" to ").append(project.getCloseDate()).append(")\n");
+            String separator = "";
+            for (FlatType type : FlatType.values()) {
+                if ((eligible & type.mask()) != 0) {
+                    sb.append(separator).append(type.getLabel()).append(": ")
+                            .append(project.getAvailableUnits(type));
+                    separator = ", ";
+                }
             }
+            sb.append("\n-------------------------\n");
         }
+        return sb.toString();
     }
 
     /**
@@ -62,11 +97,6 @@ public class ProjectController {
      * @return The project object if found, otherwise null.
      */
     public Project getProjectByName(String name) {
-        for (Project p : projects) {
-            if (p.getName().equalsIgnoreCase(name)) {
-                return p;
-            }
-        }
-        return null;
+        return projects.findByName(name);
     }
 }
@@ -4,7 +4,6 @@ import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Scanner;
-import java.util.stream.Collectors;
 
 /**
  * Service class to handle project-related logic and actions such as
@@ -16,29 +15,25 @@ public class ProjectService {
     /**
      * Returns a list of projects managed by a specific HDB Manager.
      *
-     * @param allProjects List of all projects in the system
+     * @param allProjects Catalog of all projects in the system
      * @param managerNric NRIC of the HDB Manager
      * @return List of projects managed by the specified manager
      */
-    public List<Project> getManagerProjects(List<Project> allProjects, String managerNric) {
-        return allProjects.stream()
-                .filter(p -> p.getManagerInCharge().getNric().equals(managerNric))
-                .collect(Collectors.toList());
+    public List<Project> getManagerProjects(ProjectCatalog allProjects, String managerNric) {
+        return allProjects.findByManager(managerNric);
     }
 
     /**
      * Checks if the manager is already managing another project during the given period.
      *
      * @param manager     The HDB Manager
-     * @param allProjects List of all projects
+     * @param allProjects Catalog of all projects
      * @param newOpen     Proposed open date
      * @param newClose    Proposed close date
      * @return true if there is an overlapping project, false otherwise
      */
-    public boolean hasOverlappingProject(HDBManager manager, List<Project> allProjects, LocalDate newOpen, LocalDate newClose) {
-        return allProjects.stream()
-                .filter(p -> p.getManagerInCharge() != null && p.getManagerInCharge().equals(manager))
-                .anyMatch(p -> !(newClose.isBefore(p.getOpenDate()) || newOpen.isAfter(p.getCloseDate())));
+    public boolean hasOverlappingProject(HDBManager manager, ProjectCatalog allProjects, LocalDate newOpen, LocalDate newClose) {
+        return allProjects.hasManagerOverlap(manager, newOpen, newClose);
     }
 
     /**
@@ -56,17 +51,15 @@ public class ProjectService {
      *
      * @param sc           Scanner for input
      * @param manager      The HDB Manager creating the project
-     * @param allProjects  The list of existing projects to validate overlaps and add the new one
+     * @param allProjects  The catalog of existing projects to validate overlaps and add the new one
      */
-    public void createProject(Scanner sc, HDBManager manager, List<Project> allProjects) {
+    public void createProject(Scanner sc, HDBManager manager, ProjectCatalog allProjects) {
         System.out.print("Enter project name: ");
         String name = sc.nextLine();
 
-        for (Project proj : allProjects) {
-            if (proj.getName().equalsIgnoreCase(name)) {
-                System.out.println("A project with this name already exists. Creation cancelled.");
-                return;
-            }
+        if (allProjects.containsName(name)) {
+            System.out.println("A project with this name already exists. Creation cancelled.");
+            return;
         }
 
         System.out.print("Enter neighborhood: ");
@@ -158,7 +151,12 @@ public class ProjectService {
         Project p = new Project(name, neighborhood, open, close, manager, false, officerSlots);
         p.setFlatUnits(FlatType.TWO_ROOM, twoRoom);
         p.setFlatUnits(FlatType.THREE_ROOM, threeRoom);
-        allProjects.add(p);
+        if (!allProjects.addIfAbsent(p)) {
+            System.out.println("A project with this name already exists. Creation cancelled.");
+            return;
+        }
+        ChangeTracker.markDirty(ChangeTracker.Dataset.PROJECTS);
+        Journal.getInstance().recordProject(p);
         System.out.println("Project created.");
     }
 }
@@ -0,0 +1,241 @@
+package src;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * The list of all officer registrations, together with indexes of the registrations
+ * for each manager's projects, of the pending ones among them, and an interval tree per
+ * officer of the project periods of their approved registrations.
+ * Every way of adding or removing a registration goes through this list, and the store
+ * listens for status changes on the registrations it holds, so a manager's registrations
+ * can be listed in time proportional to their number, and checking whether an officer
+ * already handles a project in a given period takes logarithmic time.
+ *
+ * Registering is checked against the officer's existing registrations and added in
+ * one synchronized step by {@link #addIfAbsent}, so an officer cannot register twice
+ * for a project from two sessions. Approvals reach the per-officer period trees through
+ * the synchronized status listener, and iterating walks a copy of the list.
+ */
+public class RegistrationStore extends AbstractList<OfficerRegistration>
+        implements RandomAccess, OfficerRegistration.StatusListener {
+    private final List<OfficerRegistration> registrations = new ArrayList<>();
+    private final LongHashMap<Set<OfficerRegistration>> byOfficer = new LongHashMap<>();
+    private final LongHashMap<Set<OfficerRegistration>> byManager = new LongHashMap<>();
+    private final LongHashMap<Set<OfficerRegistration>> pendingByManager = new LongHashMap<>();
+    private final LongHashMap<IntervalTree<OfficerRegistration>> approvedByOfficer = new LongHashMap<>();
+
+    /**
+     * Returns the registrations for projects the manager with the given NRIC is in charge of.
+     *
+     * @param managerNric the manager's NRIC, in any case
+     * @return a snapshot of the matching registrations
+     */
+    public synchronized List<OfficerRegistration> findByManager(String managerNric) {
+        return snapshot(byManager.get(NricCodec.encode(managerNric)));
+    }
+
+    /**
+     * Returns the pending registrations for projects the manager with the given NRIC is in charge of.
+     *
+     * @param managerNric the manager's NRIC, in any case
+     * @return a snapshot of the matching registrations
+     */
+    public synchronized List<OfficerRegistration> findPendingByManager(String managerNric) {
+        return snapshot(pendingByManager.get(NricCodec.encode(managerNric)));
+    }
+
+    /**
+     * Returns the registrations of the officer with the same NRIC as the given officer,
+     * in the order they were added.
+     *
+     * @param officer the officer
+     * @return a snapshot of the officer's registrations
+     */
+    public synchronized List<OfficerRegistration> findByOfficer(HDBOfficer officer) {
+        return snapshot(byOfficer.get(officer.getNricKey()));
+    }
+
+    /**
+     * Checks whether the officer has an approved registration for a project whose
+     * application period overlaps the given period.
+     *
+     * @param officer the officer
+     * @param open    the first day of the period
+     * @param close   the last day of the period
+     * @return true if an approved registration overlaps the period
+     */
+    public synchronized boolean hasApprovedOverlap(HDBOfficer officer, LocalDate open, LocalDate close) {
+        IntervalTree<OfficerRegistration> tree = approvedByOfficer.get(officer.getNricKey());
+        return tree != null && tree.overlaps(open, close);
+    }
+
+    /**
+     * Finds an officer's registration for a project. An officer has at most one
+     * registration per project, so the pair identifies the registration.
+     *
+     * @param officer the officer
+     * @param project the project
+     * @return the registration, or null if the officer has not registered for the project
+     */
+    public synchronized OfficerRegistration find(HDBOfficer officer, Project project) {
+        Set<OfficerRegistration> regs = byOfficer.get(officer.getNricKey());
+        if (regs != null) {
+            for (OfficerRegistration reg : regs) {
+                if (reg.getOfficer() == officer && reg.getProject() == project) {
+                    return reg;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a registration unless the officer has already registered for the project.
+     *
+     * @param reg the registration to add
+     * @return true if the registration was added
+     */
+    public synchronized boolean addIfAbsent(OfficerRegistration reg) {
+        if (find(reg.getOfficer(), reg.getProject()) != null) {
+            return false;
+        }
+        add(reg);
+        return true;
+    }
+
+    @Override
+    public synchronized OfficerRegistration get(int index) {
+        return registrations.get(index);
+    }
+
+    @Override
+    public synchronized int size() {
+        return registrations.size();
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the list taken under the store's lock, so
+     * iterating never sees a half-applied change made by another session. The iterator
+     * does not support removal.
+     *
+     * @return an iterator over the registrations at the time of the call
+     */
+    @Override
+    public synchronized Iterator<OfficerRegistration> iterator() {
+        return Collections.unmodifiableList(new ArrayList<>(registrations)).iterator();
+    }
+
+    @Override
+    public synchronized void add(int index, OfficerRegistration reg) {
+        registrations.add(index, reg);
+        byOfficer.computeIfAbsent(reg.getOfficer().getNricKey(), k -> new LinkedHashSet<>()).add(reg);
+        long manager = managerKey(reg);
+        if (manager != NricCodec.INVALID) {
+            byManager.computeIfAbsent(manager, k -> new LinkedHashSet<>()).add(reg);
+        }
+        index(reg, reg.getStatus());
+        reg.setStatusListener(this);
+    }
+
+    @Override
+    public synchronized OfficerRegistration set(int index, OfficerRegistration reg) {
+        OfficerRegistration old = remove(index);
+        add(index, reg);
+        return old;
+    }
+
+    @Override
+    public synchronized OfficerRegistration remove(int index) {
+        OfficerRegistration reg = registrations.remove(index);
+        removeFrom(byOfficer, reg.getOfficer().getNricKey(), reg);
+        long manager = managerKey(reg);
+        if (manager != NricCodec.INVALID) {
+            removeFrom(byManager, manager, reg);
+        }
+        unindex(reg, reg.getStatus());
+        reg.setStatusListener(null);
+        return reg;
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+        int index = registrations.indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public synchronized int indexOf(Object o) {
+        return registrations.indexOf(o);
+    }
+
+    @Override
+    public synchronized boolean contains(Object o) {
+        return registrations.contains(o);
+    }
+
+    /**
+     * Moves a registration to the indexes of its new status.
+     *
+     * @param reg       the registration whose status changed
+     * @param oldStatus the status before the change
+     */
+    @Override
+    public synchronized void statusChanged(OfficerRegistration reg, OfficerRegistration.Status oldStatus) {
+        unindex(reg, oldStatus);
+        index(reg, reg.getStatus());
+    }
+
+    private void index(OfficerRegistration reg, OfficerRegistration.Status status) {
+        long manager = managerKey(reg);
+        if (status == OfficerRegistration.Status.PENDING && manager != NricCodec.INVALID) {
+            pendingByManager.computeIfAbsent(manager, k -> new LinkedHashSet<>()).add(reg);
+        } else if (status == OfficerRegistration.Status.APPROVED) {
+            Project project = reg.getProject();
+            approvedByOfficer.computeIfAbsent(reg.getOfficer().getNricKey(), k -> new IntervalTree<>())
+                    .add(project.getOpenDate(), project.getCloseDate(), reg);
+        }
+    }
+
+    private void unindex(OfficerRegistration reg, OfficerRegistration.Status status) {
+        long manager = managerKey(reg);
+        if (status == OfficerRegistration.Status.PENDING && manager != NricCodec.INVALID) {
+            removeFrom(pendingByManager, manager, reg);
+        } else if (status == OfficerRegistration.Status.APPROVED) {
+            long key = reg.getOfficer().getNricKey();
+            IntervalTree<OfficerRegistration> tree = approvedByOfficer.get(key);
+            Project project = reg.getProject();
+            if (tree != null && tree.remove(project.getOpenDate(), project.getCloseDate(), reg) && tree.isEmpty()) {
+                approvedByOfficer.remove(key);
+            }
+        }
+    }
+
+    private static void removeFrom(LongHashMap<Set<OfficerRegistration>> index, long key,
+                                   OfficerRegistration reg) {
+        Set<OfficerRegistration> regs = index.get(key);
+        if (regs != null && regs.remove(reg) && regs.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static List<OfficerRegistration> snapshot(Set<OfficerRegistration> regs) {
+        return regs == null ? new ArrayList<>() : new ArrayList<>(regs);
+    }
+
+    private static long managerKey(OfficerRegistration reg) {
+        HDBManager manager = reg.getProject().getManagerInCharge();
+        return manager == null ? NricCodec.INVALID : manager.getNricKey();
+    }
+}
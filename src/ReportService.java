@@ -1,11 +1,14 @@
 package src;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Scanner;
 
 /**
  * Provides functionality to generate booking reports for BTO applications.
  * Reports can be filtered by flat type, marital status, or show all pending applications.
+ * Also reports lock contention per project.
  */
 public class ReportService {
 
@@ -14,9 +17,9 @@ public class ReportService {
      * Options include filtering by flat type, marital status, or displaying all.
      *
      * @param sc               Scanner object for user input
-     * @param allApplications List of all applications in the system
+     * @param allApplications Store of all applications in the system
      */
-    public void generateBookingReport(Scanner sc, List<Application> allApplications) {
+    public void generateBookingReport(Scanner sc, ApplicationStore allApplications) {
         System.out.print("Filter by (1) FlatType (2) Marital Status (3) All: ");
         int filter = Integer.parseInt(sc.nextLine());
 
@@ -24,32 +27,57 @@ public class ReportService {
             case 1 -> {
                 System.out.print("Enter flat type (2 or 3): ");
                 FlatType ft = sc.nextLine().equals("2") ? FlatType.TWO_ROOM : FlatType.THREE_ROOM;
-                allApplications.stream()
-                        .filter(app -> app.getStatus() == Application.Status.PENDING
-                                && app.getAction().equalsIgnoreCase("Application")
+                allApplications.findByStatus(Application.Status.PENDING).stream()
+                        .filter(app -> app.getAction().equalsIgnoreCase("Application")
                                 && app.getFlatType() == ft)
                         .forEach(this::printApplicationDetails);
             }
 
             case 2 -> {
                 System.out.print("Enter marital status (single/married): ");
-                String maritalStatus = sc.nextLine();
-                allApplications.stream()
-                        .filter(app -> app.getStatus() == Application.Status.PENDING
-                                && app.getAction().equalsIgnoreCase("Application")
-                                && app.getApplicant().getMaritalStatus().equalsIgnoreCase(maritalStatus))
+                MaritalStatus maritalStatus;
+                try {
+                    maritalStatus = MaritalStatus.parse(sc.nextLine());
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Invalid marital status");
+                    return;
+                }
+                allApplications.findByStatus(Application.Status.PENDING).stream()
+                        .filter(app -> app.getAction().equalsIgnoreCase("Application")
+                                && app.getApplicant().getMaritalStatus() == maritalStatus)
                         .forEach(this::printApplicationDetails);
             }
 
-            case 3 -> allApplications.stream()
-                        .filter(app -> app.getStatus() == Application.Status.PENDING
-                                && app.getAction().equalsIgnoreCase("Application"))
+            case 3 -> allApplications.findByStatus(Application.Status.PENDING).stream()
+                        .filter(app -> app.getAction().equalsIgnoreCase("Application"))
                         .forEach(this::printApplicationDetails);
 
             default -> System.out.println("Invalid filter option");
         }
     }
 
+    /**
+     * Prints how contended the lock stripe of each project has been, most contended first,
+     * to show which projects sessions are competing over. Projects that share a stripe
+     * share its counts.
+     *
+     * @param allProjects catalog of all projects
+     */
+    public void generateContentionReport(ProjectCatalog allProjects) {
+        LockStripes stripes = LockStripes.PROJECTS;
+        List<Project> projects = new ArrayList<>(allProjects);
+        projects.sort(Comparator.comparingLong(
+                (Project p) -> stripes.getContended(stripes.stripeFor(LockStripes.key(p)))).reversed());
+
+        System.out.println("\n== Lock Contention by Project ==");
+        System.out.printf("%-12s %6s %12s %10s%n", "Project", "Stripe", "Acquisitions", "Contended");
+        for (Project p : projects) {
+            int stripe = stripes.stripeFor(LockStripes.key(p));
+            System.out.printf("%-12s %6d %12d %10d%n", p.getName(), stripe,
+                    stripes.getAcquisitions(stripe), stripes.getContended(stripe));
+        }
+    }
+
     /**
      * Prints the details of an application in a structured format.
      *
@@ -58,6 +86,6 @@ public class ReportService {
     private void printApplicationDetails(Application app) {
         Applicant a = app.getApplicant();
         System.out.printf("NRIC: %s, Age: %d, Marital Status: %s, Flat: %s, Project: %s%n",
-                a.getNric(), a.getAge(), a.getMaritalStatus(), app.getFlatType(), app.getProject().getName());
+                a.getNric(), a.getAge(), a.getMaritalStatusLabel(), app.getFlatType(), app.getProject().getName());
     }
 }
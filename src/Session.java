@@ -0,0 +1,66 @@
+package src;
+
+import java.util.Scanner;
+
+/**
+ * Runs interactive sessions against the shared data: a login, the dashboard of the
+ * user's role, and persisting the session's changes once the user logs out.
+ * One instance is shared by every session, whether it is the console session or one
+ * of the connections of the {@link SessionServer}, so all the state it holds must be
+ * safe to use from several threads.
+ */
+public class Session {
+    private final DataStore data;
+    private final PersistenceWriter writer;
+    private final ProjectController projectController;
+    private final ApplicationController applicationController;
+    private final OfficerController officerController;
+    private final EnquiryController enquiryController;
+    private final UserRegistry userRegistry;
+    private final LoginManager loginManager;
+
+    /**
+     * Constructs the controllers shared by every session.
+     *
+     * @param data   the loaded data
+     * @param writer the writer that persists each session's changes
+     */
+    public Session(DataStore data, PersistenceWriter writer) {
+        this.data = data;
+        this.writer = writer;
+        this.projectController = new ProjectController(data.getProjects());
+        this.applicationController = new ApplicationController(data.getApplications());
+        this.officerController = new OfficerController(data.getRegistrations());
+        this.enquiryController = new EnquiryController(data.getEnquiries());
+        this.userRegistry = UserRegistry.of(data);
+        this.loginManager = new LoginManager(userRegistry);
+    }
+
+    /**
+     * Logs a user in, shows the dashboard of their role until they log out, and then
+     * hands the session's changes to the persistence writer.
+     *
+     * @param sc Scanner reading the session's input
+     */
+    public void run(Scanner sc) {
+        User loggedInUser = null;
+
+        while (loggedInUser == null) {
+            loggedInUser = loginManager.login(sc);
+        }
+
+        // ==== Role Routing ====
+        if (loggedInUser instanceof HDBManager manager) {
+            new ManagerUI(manager).showDashboard(sc, data.getProjects(), officerController, data.getApplications(), data.getEnquiries());
+        } else if (loggedInUser instanceof HDBOfficer officer) {
+            new OfficerUI(officer).showDashboard(sc, data.getApplications(), officerController, projectController, applicationController, enquiryController, data.getEnquiries(), userRegistry);
+        } else if (loggedInUser instanceof Applicant applicant) {
+            ApplicantUI applicantUI = new ApplicantUI(projectController, applicationController, enquiryController);
+            applicantUI.show(applicant, sc);
+        }
+
+        // ==== Persist the session's changes in the background ====
+        System.out.println("\nReturning to main menu...");
+        writer.sessionEnded(data);
+    }
+}
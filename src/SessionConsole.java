@@ -0,0 +1,80 @@
+package src;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Routes {@code System.out} to the output of the session running on the current thread.
+ * The UI classes print straight to {@code System.out}; once {@link #install()} has replaced
+ * it with a stream writing through this router, each session thread can bind its own
+ * connection with {@link #bind(OutputStream)} and the UI output reaches the right client.
+ * Threads with no binding, such as the console session and background threads, write to
+ * the original standard output.
+ */
+public final class SessionConsole extends OutputStream {
+    private static SessionConsole installed;
+
+    private final OutputStream fallback;
+    private final ThreadLocal<OutputStream> target = new ThreadLocal<>();
+
+    private SessionConsole(OutputStream fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * Replaces {@code System.out} with a stream routed per thread. Calling it again has no effect.
+     */
+    public static synchronized void install() {
+        if (installed == null) {
+            installed = new SessionConsole(System.out);
+            System.setOut(new PrintStream(installed, true, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Sends the current thread's {@code System.out} output to the given stream until
+     * {@link #unbind()} is called.
+     *
+     * @param out the session's output stream
+     */
+    public static void bind(OutputStream out) {
+        installed.target.set(out);
+    }
+
+    /**
+     * Sends the current thread's {@code System.out} output back to the original standard output.
+     */
+    public static void unbind() {
+        installed.target.remove();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        current().write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        current().write(b, off, len);
+    }
+
+    /**
+     * Flushes the original standard output. A session's own stream is not flushed here,
+     * because {@code System.out} is shared and a slow client would hold up every other
+     * session while its socket write blocks; the session flushes its stream itself before
+     * it waits for input.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (target.get() == null) {
+            fallback.flush();
+        }
+    }
+
+    private OutputStream current() {
+        OutputStream out = target.get();
+        return out != null ? out : fallback;
+    }
+}
@@ -0,0 +1,149 @@
+package src;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves interactive sessions to many users at once over a local socket.
+ * Each connection speaks the same line-based text protocol as the console, so any
+ * telnet-style client can log in and use the usual dashboards. Every connection runs
+ * its sessions on a thread of its own against the shared, synchronized stores, with
+ * {@code System.out} routed to the connection by {@link SessionConsole}.
+ *
+ * Sessions spend nearly all their time waiting for their user, so they run on virtual
+ * threads when the runtime provides them; on older runtimes a cached pool of platform
+ * threads is used instead.
+ */
+public class SessionServer {
+    /** Port the server listens on when none is given. */
+    public static final int DEFAULT_PORT = 5050;
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final Session session;
+    private final ExecutorService executor = newSessionExecutor();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+
+    /**
+     * Constructs a server running the given sessions.
+     *
+     * @param session the sessions shared by every connection
+     */
+    public SessionServer(Session session) {
+        this.session = session;
+    }
+
+    /**
+     * Accepts connections on the loopback interface until the process is stopped.
+     *
+     * @param port the port to listen on
+     */
+    public void serve(int port) {
+        SessionConsole.install();
+        try (ServerSocket server = new ServerSocket(port, 512, InetAddress.getLoopbackAddress())) {
+            System.out.println("Serving sessions on " + server.getLocalSocketAddress());
+            while (true) {
+                Socket socket = server.accept();
+                executor.execute(() -> handle(socket));
+            }
+        } catch (IOException e) {
+            System.out.println("Error running session server on port " + port);
+            e.printStackTrace();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Runs sessions on one connection until the client disconnects.
+     */
+    private void handle(Socket socket) {
+        activeSessions.incrementAndGet();
+        try (socket) {
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream(), OUTPUT_BUFFER_SIZE);
+            Scanner sc = new Scanner(new FlushingInputStream(socket.getInputStream(), out), StandardCharsets.UTF_8);
+            SessionConsole.bind(out);
+            try {
+                while (true) {
+                    session.run(sc);
+                }
+            } catch (NoSuchElementException e) {
+                // The client closed the connection.
+            } finally {
+                SessionConsole.unbind();
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The connection was lost; nothing is left to clean up.
+        } catch (RuntimeException e) {
+            System.err.println("Session ended by an error: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of connections currently being served.
+     *
+     * @return the active session count
+     */
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread per task, looked up reflectively so
+     * the code still compiles and runs on runtimes without virtual threads, where a cached
+     * pool of daemon platform threads is returned.
+     */
+    private static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "session-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Input stream that flushes the session's output before blocking for input, so
+     * prompts printed without a line break reach the client before it is asked to answer.
+     */
+    private static final class FlushingInputStream extends FilterInputStream {
+        private final OutputStream out;
+
+        FlushingInputStream(InputStream in, OutputStream out) {
+            super(in);
+            this.out = out;
+        }
+
+        @Override
+        public int read() throws IOException {
+            out.flush();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            out.flush();
+            return super.read(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package src;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the whole {@link DataStore} as a compact binary snapshot.
+ * Loading a snapshot avoids the text parsing done by the CSV loaders: NRICs and
+ * project names are stored once in a dictionary, enums as ordinals, dates as
+ * epoch days, and references between records as integer ids.
+ *
+ * Layout, written with {@link DataOutputStream}:
+ * <pre>
+ * magic, version
+ * dictionary:    count, strings
+ * users:         applicant count, officer count, manager count,
+ *                then per user: nric id, name, age, marital status, password
+ * projects:      count, then per project: name id, neighborhood, 2-room units,
+ *                3-room units, open day, close day, manager id, officer slots,
+ *                officer count, officer ids, visibility
+ * applications:  count, then per application: applicant id, project id,
+ *                flat type, status, withdrawal requested
+ * enquiries:     next enquiry id, count, then per enquiry: enquiry id, applicant id,
+ *                project id, content, reply
+ * registrations: count, then per registration: officer id, project id, status
+ * </pre>
+ * Strings are written as their UTF-8 byte count followed by the bytes, so
+ * enquiry texts are not limited to the 64 KB of {@link DataOutputStream#writeUTF}.
+ * User ids index the user list in the order applicants, officers, managers,
+ * and project ids index the project list. Only snapshots of the current version
+ * are read; older ones are rebuilt from the CSV files.
+ */
+public class SnapshotFile {
+    private static final int MAGIC = 0x48444253; // "HDBS"
+    private static final int VERSION = 3;
+    private static final int NONE = -1;
+
+    /**
+     * Writes the data to a snapshot file, replacing it atomically.
+     *
+     * @param filePath path of the snapshot file
+     * @param data     the data to write
+     * @return true if the snapshot was written successfully
+     */
+    public boolean write(String filePath, DataStore data) {
+        try {
+            AtomicFileWriter.write(filePath, toBytes(data));
+            System.out.println("Snapshot saved successfully to " + filePath);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to save snapshot:");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Encodes the data in the snapshot format without writing it anywhere.
+     *
+     * @param data the data to encode
+     * @return the snapshot contents
+     */
+    public byte[] toBytes(DataStore data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeData(out, data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown by in-memory streams
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a snapshot file into the given data store, which should be empty.
+     *
+     * @param filePath path of the snapshot file
+     * @param data     the data store to populate
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public void read(String filePath, DataStore data) throws IOException {
+        try (FileInputStream stream = new FileInputStream(filePath);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 64 * 1024))) {
+            readData(in, data);
+        }
+    }
+
+    /**
+     * Checks whether a snapshot file exists.
+     *
+     * @param filePath path of the snapshot file
+     * @return true if the file exists
+     */
+    public static boolean exists(String filePath) {
+        return Files.isRegularFile(Path.of(filePath));
+    }
+
+    // ==== Writing ====
+
+    private void writeData(DataOutputStream out, DataStore data) throws IOException {
+        List<User> users = new ArrayList<>();
+        users.addAll(data.getApplicants());
+        users.addAll(data.getOfficers());
+        users.addAll(data.getManagers());
+
+        Map<User, Integer> userIds = indexOf(users);
+        Map<Project, Integer> projectIds = indexOf(data.getProjects());
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (User user : users) {
+            encode(user.getNric(), dictionary, strings);
+        }
+        for (Project project : data.getProjects()) {
+            encode(project.getName(), dictionary, strings);
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        out.writeInt(strings.size());
+        for (String s : strings) {
+            writeString(out, s);
+        }
+
+        out.writeInt(data.getApplicants().size());
+        out.writeInt(data.getOfficers().size());
+        out.writeInt(data.getManagers().size());
+        for (User user : users) {
+            out.writeInt(dictionary.get(user.getNric()));
+            writeString(out, user.getName());
+            out.writeInt(user.getAge());
+            writeString(out, user.getMaritalStatusLabel());
+            writeString(out, user.getPassword());
+        }
+
+        out.writeInt(data.getProjects().size());
+        for (Project project : data.getProjects()) {
+            out.writeInt(dictionary.get(project.getName()));
+            writeString(out, project.getNeighborhood());
+            out.writeInt(project.getAvailableUnits(FlatType.TWO_ROOM));
+            out.writeInt(project.getAvailableUnits(FlatType.THREE_ROOM));
+            out.writeLong(project.getOpenDate().toEpochDay());
+            out.writeLong(project.getCloseDate().toEpochDay());
+            out.writeInt(idOf(userIds, project.getManagerInCharge()));
+            out.writeInt(project.getOfficerSlots());
+            out.writeInt(project.getOfficerInCharge().size());
+            for (HDBOfficer officer : project.getOfficerInCharge()) {
+                out.writeInt(idOf(userIds, officer));
+            }
+            out.writeBoolean(project.isVisible());
+        }
+
+        out.writeInt(data.getApplications().size());
+        for (Application app : data.getApplications()) {
+            out.writeInt(idOf(userIds, app.getApplicant()));
+            out.writeInt(idOf(projectIds, app.getProject()));
+            out.writeByte(app.getFlatType().ordinal());
+            out.writeByte(app.getStatus().ordinal());
+            out.writeBoolean(app.isWithdrawalRequested());
+        }
+
+        List<Enquiry> enquiries = data.getEnquiries().getAll();
+        out.writeInt(data.getEnquiries().getNextId());
+        out.writeInt(enquiries.size());
+        for (Enquiry enquiry : enquiries) {
+            out.writeInt(enquiry.getId());
+            out.writeInt(idOf(userIds, enquiry.getOwner()));
+            out.writeInt(idOf(projectIds, enquiry.getProject()));
+            writeString(out, enquiry.getContent());
+            writeString(out, enquiry.getReply());
+        }
+
+        out.writeInt(data.getRegistrations().size());
+        for (OfficerRegistration reg : data.getRegistrations()) {
+            out.writeInt(idOf(userIds, reg.getOfficer()));
+            out.writeInt(idOf(projectIds, reg.getProject()));
+            out.writeByte(reg.getStatus().ordinal());
+        }
+    }
+
+    private static <T> Map<T, Integer> indexOf(List<? extends T> items) {
+        Map<T, Integer> ids = new IdentityHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            ids.put(items.get(i), i);
+        }
+        return ids;
+    }
+
+    private static int idOf(Map<?, Integer> ids, Object item) {
+        Integer id = item == null ? null : ids.get(item);
+        return id == null ? NONE : id;
+    }
+
+    private static void encode(String s, Map<String, Integer> dictionary, List<String> strings) {
+        if (!dictionary.containsKey(s)) {
+            dictionary.put(s, strings.size());
+            strings.add(s);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // ==== Reading ====
+
+    private void readData(DataInputStream in, DataStore data) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a snapshot file");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+
+        String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(in);
+        }
+
+        int applicantCount = in.readInt();
+        int officerCount = in.readInt();
+        int managerCount = in.readInt();
+        User[] users = new User[applicantCount + officerCount + managerCount];
+        for (int i = 0; i < users.length; i++) {
+            String nric = strings[in.readInt()];
+            String name = readString(in);
+            int age = in.readInt();
+            String marital = readString(in);
+            String password = readString(in);
+
+            User user;
+            if (i < applicantCount) {
+                Applicant applicant = new Applicant(name, nric, age, marital);
+                data.getApplicants().add(applicant);
+                user = applicant;
+            } else if (i < applicantCount + officerCount) {
+                HDBOfficer officer = new HDBOfficer(name, nric, age, marital);
+                data.getOfficers().add(officer);
+                user = officer;
+            } else {
+                HDBManager manager = new HDBManager(name, nric, age, marital);
+                data.getManagers().add(manager);
+                user = manager;
+            }
+            user.changePassword(password);
+            users[i] = user;
+        }
+        data.getUsers().addAll(data.getApplicants());
+        data.getUsers().addAll(data.getOfficers());
+        data.getUsers().addAll(data.getManagers());
+
+        Project[] projects = new Project[in.readInt()];
+        for (int i = 0; i < projects.length; i++) {
+            String name = strings[in.readInt()];
+            String neighborhood = readString(in);
+            int twoRoom = in.readInt();
+            int threeRoom = in.readInt();
+            LocalDate open = LocalDate.ofEpochDay(in.readLong());
+            LocalDate close = LocalDate.ofEpochDay(in.readLong());
+            HDBManager manager = user(users, in.readInt(), HDBManager.class);
+            int officerSlots = in.readInt();
+
+            Project project = new Project(name, neighborhood, open, close, manager, false, officerSlots);
+            project.setFlatUnits(FlatType.TWO_ROOM, twoRoom);
+            project.setFlatUnits(FlatType.THREE_ROOM, threeRoom);
+            int officers = in.readInt();
+            for (int j = 0; j < officers; j++) {
+                HDBOfficer officer = user(users, in.readInt(), HDBOfficer.class);
+                if (officer != null) {
+                    project.addOfficerInCharge(officer);
+                    officer.assignHandledProject(project);
+                }
+            }
+            if (in.readBoolean()) {
+                project.toggleVisibility();
+            }
+            projects[i] = project;
+            data.getProjects().add(project);
+        }
+
+        FlatType[] flatTypes = FlatType.values();
+        Application.Status[] appStatuses = Application.Status.values();
+        int applications = in.readInt();
+        for (int i = 0; i < applications; i++) {
+            Applicant applicant = user(users, in.readInt(), Applicant.class);
+            Project project = project(projects, in.readInt());
+            FlatType flatType = flatTypes[in.readByte()];
+            Application.Status status = appStatuses[in.readByte()];
+            boolean withdrawalRequested = in.readBoolean();
+            if (applicant == null || project == null) {
+                System.out.println("Warning: Invalid applicant/project in snapshot application " + i);
+                continue;
+            }
+
+            Application app = new Application(applicant, project, flatType);
+            app.restoreStatus(status);
+            app.setWithdrawal(withdrawalRequested);
+            applicant.setApplication(app);
+            data.getApplications().add(app);
+        }
+
+        EnquiryStore enquiryStore = data.getEnquiries();
+        int nextEnquiryId = in.readInt();
+        int enquiries = in.readInt();
+        for (int i = 0; i < enquiries; i++) {
+            int id = in.readInt();
+            Applicant applicant = user(users, in.readInt(), Applicant.class);
+            Project project = project(projects, in.readInt());
+            String content = readString(in);
+            String reply = readString(in);
+            if (applicant == null || project == null) {
+                System.err.println("Skipping enquiry - applicant or project not found");
+                continue;
+            }
+
+            enquiryStore.add(new Enquiry(id, applicant, project, content, reply));
+        }
+        enquiryStore.setNextId(nextEnquiryId);
+
+        OfficerRegistration.Status[] regStatuses = OfficerRegistration.Status.values();
+        int registrations = in.readInt();
+        for (int i = 0; i < registrations; i++) {
+            HDBOfficer officer = user(users, in.readInt(), HDBOfficer.class);
+            Project project = project(projects, in.readInt());
+            OfficerRegistration.Status status = regStatuses[in.readByte()];
+            if (officer == null || project == null) {
+                System.out.println("Warning: Could not match officer/project in snapshot registration " + i);
+                continue;
+            }
+
+            OfficerRegistration reg = new OfficerRegistration(officer, project);
+            reg.setStatus(status);
+            if (!data.getRegistrations().addIfAbsent(reg)) {
+                System.out.println("Warning: Skipping duplicate snapshot registration " + i);
+            }
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static <T extends User> T user(User[] users, int id, Class<T> type) throws IOException {
+        if (id == NONE) {
+            return null;
+        }
+        if (id < 0 || id >= users.length || !type.isInstance(users[id])) {
+            throw new IOException("Invalid user reference " + id + " in snapshot");
+        }
+        return type.cast(users[id]);
+    }
+
+    private static Project project(Project[] projects, int id) throws IOException {
+        if (id == NONE) {
+            return null;
+        }
+        if (id < 0 || id >= projects.length) {
+            throw new IOException("Invalid project reference " + id + " in snapshot");
+        }
+        return projects[id];
+    }
+}
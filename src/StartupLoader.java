@@ -0,0 +1,184 @@
+package src;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads all data into a {@link DataStore} at startup.
+ * When a binary snapshot exists it is loaded directly; otherwise the CSV files are
+ * loaded, with independent files loaded concurrently in three stages:
+ * the applicant, officer and manager files in parallel, then projects
+ * (which reference managers and officers), then enquiries, applications
+ * and registrations in parallel (which reference users and projects).
+ * Finally the active {@link Journal} is replayed over the loaded data.
+ * The time taken by each file and each stage is printed once loading completes.
+ */
+public class StartupLoader {
+    public static final String APPLICANT_FILE = "ApplicantList.csv";
+    public static final String OFFICER_FILE = "OfficerList.csv";
+    public static final String MANAGER_FILE = "ManagerList.csv";
+    public static final String PROJECT_FILE = "ProjectList.csv";
+    public static final String ENQUIRY_FILE = "EnquiryList.csv";
+    public static final String APPLICATION_FILE = "ApplicationList.csv";
+    public static final String REGISTRATION_FILE = "RegistrationList.csv";
+    public static final String JOURNAL_FILE = "Journal.log";
+    public static final String SNAPSHOT_FILE = "Data.snapshot";
+
+    private final StringBuilder timings = new StringBuilder();
+    private boolean fromSnapshot;
+
+    /**
+     * Loads the snapshot if there is one, or every CSV file otherwise,
+     * then replays the journal over the loaded data.
+     *
+     * @return the populated data store
+     */
+    public DataStore load() {
+        return load(SnapshotFile.exists(SNAPSHOT_FILE));
+    }
+
+    /**
+     * Loads every CSV file, ignoring any snapshot. The journal is only replayed
+     * when there is no snapshot, since otherwise it records changes to the snapshot.
+     *
+     * @return the populated data store
+     */
+    public DataStore loadFromCSV() {
+        return load(false);
+    }
+
+    /**
+     * Checks whether the last load read the snapshot rather than the CSV files.
+     *
+     * @return true if the data came from the snapshot
+     */
+    public boolean isFromSnapshot() {
+        return fromSnapshot;
+    }
+
+    private DataStore load(boolean useSnapshot) {
+        long start = System.nanoTime();
+        DataStore data = null;
+        if (useSnapshot) {
+            data = loadSnapshot();
+        }
+        fromSnapshot = data != null;
+        if (data == null) {
+            data = loadCSVFiles();
+        }
+
+        ChangeTracker.clearAll();
+
+        // ==== Stage 4: changes recorded since the data files were written ====
+        if (fromSnapshot || !SnapshotFile.exists(SNAPSHOT_FILE)) {
+            long stageStart = System.nanoTime();
+            Journal.getInstance().replay(data);
+            recordTiming("stage: journal", stageStart);
+        }
+        for (Application app : data.getApplications().findByStatus(Application.Status.SUCCESSFULAPPLY)) {
+            app.getProject().getInventory().restoreReservation(app.getFlatType());
+        }
+
+        recordTiming("total", start);
+        System.out.print(timings);
+        return data;
+    }
+
+    /**
+     * Loads the binary snapshot.
+     *
+     * @return the loaded data, or null if the snapshot could not be read
+     */
+    private DataStore loadSnapshot() {
+        long stageStart = System.nanoTime();
+        DataStore data = new DataStore();
+        try {
+            new SnapshotFile().read(SNAPSHOT_FILE, data);
+            recordTiming("stage: snapshot", stageStart);
+            return data;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to load snapshot " + SNAPSHOT_FILE + ", loading CSV files instead:");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Loads every CSV file and links the records together.
+     *
+     * @return the loaded data
+     */
+    private DataStore loadCSVFiles() {
+        DataStore data = new DataStore();
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+
+        try {
+            // ==== Stage 1: users ====
+            long stageStart = System.nanoTime();
+            CompletableFuture<Void> applicants = runAsync(pool, "applicants",
+                    () -> new UserCSVLoader().loadApplicantsFromCSV(APPLICANT_FILE, data.getApplicants()));
+            CompletableFuture<Void> officers = runAsync(pool, "officers",
+                    () -> new UserCSVLoader().loadOfficersFromCSV(OFFICER_FILE, data.getOfficers()));
+            CompletableFuture<Void> managers = runAsync(pool, "managers",
+                    () -> new UserCSVLoader().loadManagersFromCSV(MANAGER_FILE, data.getManagers()));
+            CompletableFuture.allOf(applicants, officers, managers).join();
+
+            data.getUsers().addAll(data.getApplicants());
+            data.getUsers().addAll(data.getOfficers());
+            data.getUsers().addAll(data.getManagers());
+            SymbolTable symbols = SymbolTable.of(data);
+            recordTiming("stage: users", stageStart);
+
+            // ==== Stage 2: projects ====
+            stageStart = System.nanoTime();
+            new ProjectCSVLoader().loadProjectsFromCSV(PROJECT_FILE, data.getProjects(), symbols);
+            recordTiming("stage: projects", stageStart);
+
+            // ==== Stage 3: records referencing users and projects ====
+            stageStart = System.nanoTime();
+            CompletableFuture<Void> enquiries = runAsync(pool, "enquiries",
+                    () -> new EnquiryCSVLoader().loadEnquiriesFromCSV(ENQUIRY_FILE, symbols, data.getEnquiries()));
+            CompletableFuture<Void> applications = runAsync(pool, "applications",
+                    () -> new ApplicationCSVLoader().loadApplicationsFromCSV(APPLICATION_FILE,
+                            symbols, data.getApplications()));
+            CompletableFuture<Void> registrations = runAsync(pool, "registrations",
+                    () -> new OfficerRegistrationCSVLoader().loadRegistrationsFromCSV(REGISTRATION_FILE, symbols)
+                            .forEach(reg -> {
+                                if (!data.getRegistrations().addIfAbsent(reg)) {
+                                    System.out.println("Warning: Skipping duplicate registration of "
+                                            + reg.getOfficer().getNric() + " for " + reg.getProject().getName());
+                                }
+                            }));
+            CompletableFuture.allOf(enquiries, applications, registrations).join();
+            recordTiming("stage: records", stageStart);
+        } finally {
+            pool.shutdown();
+        }
+        return data;
+    }
+
+    /**
+     * Runs a loading task on the pool and records how long it took.
+     *
+     * @param pool the executor to run on
+     * @param name the name reported in the timings
+     * @param task the loading task
+     * @return a future completing when the task is done
+     */
+    private CompletableFuture<Void> runAsync(ExecutorService pool, String name, Runnable task) {
+        return CompletableFuture.runAsync(() -> {
+            long taskStart = System.nanoTime();
+            task.run();
+            recordTiming(name, taskStart);
+        }, pool);
+    }
+
+    private void recordTiming(String name, long startNanos) {
+        long millis = (System.nanoTime() - startNanos) / 1_000_000;
+        synchronized (timings) {
+            timings.append(String.format("[startup] %-16s %6d ms%n", name, millis));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package src;
+
+/**
+ * Hash-based lookup of users by NRIC and projects by name, used to resolve the
+ * references between records while loading data.
+ * Users are looked up in a {@link UserRegistry} and projects in a {@link ProjectCatalog},
+ * which picks up each project as it is loaded. The table is then shared by the loaders
+ * that follow, so each reference costs one lookup instead of a scan of the whole list.
+ * Keys are matched case-insensitively.
+ */
+public class SymbolTable {
+    private final UserRegistry users;
+    private final ProjectCatalog projects;
+
+    /**
+     * Constructs a symbol table over the given users and projects.
+     *
+     * @param users    the registry of loaded users
+     * @param projects the catalog that loaded projects are added to
+     */
+    public SymbolTable(UserRegistry users, ProjectCatalog projects) {
+        this.users = users;
+        this.projects = projects;
+    }
+
+    /**
+     * Builds a symbol table of all users and projects in the data store.
+     *
+     * @param data the loaded data
+     * @return the populated symbol table
+     */
+    public static SymbolTable of(DataStore data) {
+        return new SymbolTable(UserRegistry.of(data), data.getProjects());
+    }
+
+    /**
+     * Finds an applicant by NRIC. Officers are not included.
+     *
+     * @param nric the NRIC to look up
+     * @return the matching applicant, or null if not found
+     */
+    public Applicant findApplicant(String nric) {
+        return users.findApplicant(nric);
+    }
+
+    /**
+     * Finds an officer by NRIC.
+     *
+     * @param nric the NRIC to look up
+     * @return the matching officer, or null if not found
+     */
+    public HDBOfficer findOfficer(String nric) {
+        return users.findOfficer(nric);
+    }
+
+    /**
+     * Finds a manager by NRIC.
+     *
+     * @param nric the NRIC to look up
+     * @return the matching manager, or null if not found
+     */
+    public HDBManager findManager(String nric) {
+        return users.findManager(nric);
+    }
+
+    /**
+     * Finds a user of any role by NRIC.
+     *
+     * @param nric the NRIC to look up
+     * @return the matching user, or null if not found
+     */
+    public User findUser(String nric) {
+        return users.findUser(nric);
+    }
+
+    /**
+     * Finds a project by name.
+     *
+     * @param name the project name to look up
+     * @return the matching project, or null if not found
+     */
+    public Project findProject(String name) {
+        return projects.findByName(name);
+    }
+}
@@ -7,9 +7,11 @@ package src;
 public abstract class User {
     protected String name;
     protected String nric;
+    private final long nricKey;
     protected String password;
     protected int age;
-    protected String maritalStatus;
+    protected MaritalStatus maritalStatus;
+    private final String maritalStatusLabel;
 
     /**
      * Constructs a new User with the given attributes and a default password.
@@ -17,13 +19,18 @@ public abstract class User {
      * @param name           The name of the user
      * @param nric           The NRIC of the user
      * @param age            The age of the user
-     * @param maritalStatus  The marital status of the user
+     * @param maritalStatus  The marital status of the user; an unknown one becomes
+     *                       {@link MaritalStatus#OTHER} and keeps its text as the label
      */
     public User(String name, String nric, int age, String maritalStatus) {
         this.name = name;
         this.nric = nric;
+        this.nricKey = NricCodec.register(nric);
         this.age = age;
-        this.maritalStatus = maritalStatus;
+        this.maritalStatus = MaritalStatus.parseOrOther(maritalStatus);
+        this.maritalStatusLabel = this.maritalStatus == MaritalStatus.OTHER
+                ? maritalStatus.trim()
+                : this.maritalStatus.toString();
         this.password = "password";
     }
 
@@ -44,6 +51,7 @@ public abstract class User {
      */
     public void changePassword(String newPassword) {
         this.password = newPassword;
+        ChangeTracker.markDirty(ChangeTracker.Dataset.USERS);
     }
 
     /**
@@ -55,6 +63,15 @@ public abstract class User {
         return nric;
     }
 
+    /**
+     * Returns the NRIC of the user packed by {@link NricCodec}, for use as an index key.
+     *
+     * @return the packed or fallback NRIC key, {@link NricCodec#INVALID} only for a null NRIC
+     */
+    public long getNricKey() {
+        return nricKey;
+    }
+
     /**
      * Returns the name of the user.
      *
@@ -87,7 +104,17 @@ public abstract class User {
      *
      * @return the marital status
      */
-    public String getMaritalStatus() {
+    public MaritalStatus getMaritalStatus() {
         return maritalStatus;
     }
+
+    /**
+     * Returns the marital status as it is shown and saved: the status's label, or the
+     * text read from the data files for a status other than Single or Married.
+     *
+     * @return the marital status label
+     */
+    public String getMaritalStatusLabel() {
+        return maritalStatusLabel;
+    }
 }
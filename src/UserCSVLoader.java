@@ -1,8 +1,7 @@
 package src;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -12,41 +11,56 @@ import java.util.List;
 public class UserCSVLoader extends DataReader {
 
     /**
-     * Formats an applicant's data as a single CSV string.
+     * Formats a user's data as a single CSV string.
      *
-     * @param applicant the applicant to format
+     * @param user the user to format
      * @return a CSV-formatted string
      */
-    private String formatUserAsCSV(Applicant applicant) {
-        return String.join(";",
-            applicant.getName(),
-            applicant.getNric(),
-            String.valueOf(applicant.getAge()),
-            applicant.getMaritalStatus(),
-            applicant.getPassword()
+    private String formatUserAsCSV(User user) {
+        return formatCSVRow(
+            user.getName(),
+            user.getNric(),
+            String.valueOf(user.getAge()),
+            user.getMaritalStatusLabel(),
+            user.getPassword()
         );
     }
 
     /**
-     * Saves a list of applicants to a CSV file.
+     * Formats a list of users of one role as CSV lines, starting with the header.
      *
-     * @param filePath the file path to save the CSV to
-     * @param applicants the list of applicants to save
+     * @param users the users to format
+     * @return the lines of the CSV file
      */
-    public void saveUserToCSV(String filePath, List<Applicant> applicants) {
-        try (PrintWriter out = new PrintWriter(new FileWriter(filePath))) {
-            // CSV header
-            out.println("Name;NRIC;Age;MaritalStatus;Password");
+    public List<String> formatUsersAsCSV(List<? extends User> users) {
+        List<String> lines = new ArrayList<>(users.size() + 1);
+        lines.add("Name;NRIC;Age;MaritalStatus;Password");
+        for (User user : users) {
+            lines.add(formatUserAsCSV(user));
+        }
+        return lines;
+    }
 
-            // Write each applicant as a line
-            for (Applicant applicant : applicants) {
-                out.println(formatUserAsCSV(applicant));
+    /**
+     * Saves a list of users of one role to a CSV file.
+     *
+     * @param filePath the file path to save the CSV to
+     * @param users the list of users to save
+     * @return true if the file was written successfully
+     */
+    public boolean saveUserToCSV(String filePath, List<? extends User> users) {
+        try (AtomicFileWriter out = new AtomicFileWriter(filePath)) {
+            for (String line : formatUsersAsCSV(users)) {
+                out.println(line);
             }
 
-            System.out.println("Applicants saved successfully to " + filePath);
+            out.commit();
+            System.out.println("Users saved successfully to " + filePath);
+            return true;
         } catch (IOException e) {
-            System.err.println("Failed to save applicants:");
+            System.err.println("Failed to save users:");
             e.printStackTrace();
+            return false;
         }
     }
 
@@ -67,64 +81,84 @@ public class UserCSVLoader extends DataReader {
         List<User> users, List<Applicant> allApplicants,
         List<HDBOfficer> allOfficers, List<HDBManager> allManagers
     ) {
-        // === Load Applicants ===
-        List<String[]> applicantRows = readCSVFile(applicantFile);
-        for (int i = 1; i < applicantRows.size(); i++) {
-            String[] row = applicantRows.get(i);
+        loadApplicantsFromCSV(applicantFile, allApplicants);
+        loadOfficersFromCSV(officerFile, allOfficers);
+        loadManagersFromCSV(managerFile, allManagers);
+
+        users.addAll(allApplicants);
+        users.addAll(allOfficers);
+        users.addAll(allManagers);
+    }
+
+    /**
+     * Loads applicants from a CSV file.
+     *
+     * @param applicantFile path to the applicant CSV file
+     * @param allApplicants list to store Applicant objects
+     */
+    public void loadApplicantsFromCSV(String applicantFile, List<Applicant> allApplicants) {
+        streamCSVFile(applicantFile, (row, i) -> {
             try {
-                String name = row[0].trim();
-                String nric = row[1].trim();
-                int age = Integer.parseInt(row[2].trim());
-                String marital = row[3].trim();
-                String password = row[4].trim();
+                String name = row.get(0).trim();
+                String nric = row.get(1).trim();
+                int age = Integer.parseInt(row.get(2).trim());
+                String marital = row.get(3).trim();
+                String password = row.get(4).trim();
 
                 Applicant a = new Applicant(name, nric, age, marital);
                 a.changePassword(password);
                 allApplicants.add(a);
-                users.add(a);
             } catch (Exception e) {
                 System.out.println("Skipping invalid applicant row " + i + ": " + e.getMessage());
             }
-        }
+        });
+    }
 
-        // === Load Officers ===
-        List<String[]> officerRows = readCSVFile(officerFile);
-        for (int i = 1; i < officerRows.size(); i++) {
-            String[] row = officerRows.get(i);
+    /**
+     * Loads officers from a CSV file.
+     *
+     * @param officerFile path to the officer CSV file
+     * @param allOfficers list to store HDBOfficer objects
+     */
+    public void loadOfficersFromCSV(String officerFile, List<HDBOfficer> allOfficers) {
+        streamCSVFile(officerFile, (row, i) -> {
             try {
-                String name = row[0].trim();
-                String nric = row[1].trim();
-                int age = Integer.parseInt(row[2].trim());
-                String marital = row[3].trim();
-                String password = row[4].trim();
+                String name = row.get(0).trim();
+                String nric = row.get(1).trim();
+                int age = Integer.parseInt(row.get(2).trim());
+                String marital = row.get(3).trim();
+                String password = row.get(4).trim();
 
                 HDBOfficer o = new HDBOfficer(name, nric, age, marital);
                 o.changePassword(password);
                 allOfficers.add(o);
-                users.add(o);
             } catch (Exception e) {
                 System.out.println("Skipping invalid officer row " + i + ": " + e.getMessage());
             }
-        }
+        });
+    }
 
-        // === Load Managers ===
-        List<String[]> managerRows = readCSVFile(managerFile);
-        for (int i = 1; i < managerRows.size(); i++) {
-            String[] row = managerRows.get(i);
+    /**
+     * Loads managers from a CSV file.
+     *
+     * @param managerFile path to the manager CSV file
+     * @param allManagers list to store HDBManager objects
+     */
+    public void loadManagersFromCSV(String managerFile, List<HDBManager> allManagers) {
+        streamCSVFile(managerFile, (row, i) -> {
             try {
-                String name = row[0].trim();
-                String nric = row[1].trim();
-                int age = Integer.parseInt(row[2].trim());
-                String marital = row[3].trim();
-                String password = row[4].trim();
+                String name = row.get(0).trim();
+                String nric = row.get(1).trim();
+                int age = Integer.parseInt(row.get(2).trim());
+                String marital = row.get(3).trim();
+                String password = row.get(4).trim();
 
                 HDBManager m = new HDBManager(name, nric, age, marital);
                 m.changePassword(password);
                 allManagers.add(m);
-                users.add(m);
             } catch (Exception e) {
                 System.out.println("Skipping invalid manager row " + i + ": " + e.getMessage());
             }
-        }
+        });
     }
 }
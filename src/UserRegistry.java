@@ -0,0 +1,99 @@
+package src;
+
+/**
+ * Registry of all user accounts, indexed by NRIC.
+ * NRICs are packed into longs by {@link NricCodec} and kept in {@link LongHashMap}s, so
+ * lookups are case-insensitive, take constant time however many accounts there are, and
+ * hash no strings. Besides the index of every user, the registry keeps a view per role
+ * for lookups that only accept one kind of user. Its methods are synchronized, so
+ * sessions on different threads can share it.
+ */
+public class UserRegistry {
+    private final LongHashMap<User> users = new LongHashMap<>();
+    private final LongHashMap<Applicant> applicants = new LongHashMap<>();
+    private final LongHashMap<HDBOfficer> officers = new LongHashMap<>();
+    private final LongHashMap<HDBManager> managers = new LongHashMap<>();
+
+    /**
+     * Builds a registry of every applicant, officer and manager in the data store.
+     *
+     * @param data the loaded data
+     * @return the populated registry
+     */
+    public static UserRegistry of(DataStore data) {
+        UserRegistry registry = new UserRegistry();
+        data.getApplicants().forEach(registry::add);
+        data.getOfficers().forEach(registry::add);
+        data.getManagers().forEach(registry::add);
+        return registry;
+    }
+
+    /**
+     * Adds a user to the index of all users and to the view of its role.
+     * If another user already has the same NRIC, the user added first is kept
+     * in the index of all users. NRICs that cannot be packed have a fallback key from
+     * {@link NricCodec#register}, so their users are indexed and can log in too.
+     *
+     * @param user the user to add
+     */
+    public synchronized void add(User user) {
+        long key = user.getNricKey();
+        if (key == NricCodec.INVALID) {
+            System.out.println("Warning: Not indexing user without an NRIC: " + user.getName());
+            return;
+        }
+        users.putIfAbsent(key, user);
+        if (user instanceof HDBOfficer officer) {
+            officers.put(key, officer);
+        } else if (user instanceof Applicant applicant) {
+            applicants.put(key, applicant);
+        } else if (user instanceof HDBManager manager) {
+            managers.put(key, manager);
+        }
+    }
+
+    /**
+     * Finds a user of any role by NRIC.
+     *
+     * @param nric the NRIC to look up
+     * @return the matching user, or null if not found
+     */
+    public synchronized User findUser(String nric) {
+        return find(users, nric);
+    }
+
+    /**
+     * Finds an applicant by NRIC. Officers are not included, even though they can also apply.
+     *
+     * @param nric the NRIC to look up
+     * @return the matching applicant, or null if not found
+     */
+    public synchronized Applicant findApplicant(String nric) {
+        return find(applicants, nric);
+    }
+
+    /**
+     * Finds an officer by NRIC.
+     *
+     * @param nric the NRIC to look up
+     * @return the matching officer, or null if not found
+     */
+    public synchronized HDBOfficer findOfficer(String nric) {
+        return find(officers, nric);
+    }
+
+    /**
+     * Finds a manager by NRIC.
+     *
+     * @param nric the NRIC to look up
+     * @return the matching manager, or null if not found
+     */
+    public synchronized HDBManager findManager(String nric) {
+        return find(managers, nric);
+    }
+
+    private static <T> T find(LongHashMap<T> index, String nric) {
+        long key = NricCodec.encode(nric);
+        return key == NricCodec.INVALID ? null : index.get(key);
+    }
+}
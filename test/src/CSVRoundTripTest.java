@@ -0,0 +1,83 @@
+package src;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that values written by the CSV savers are read back unchanged in every read
+ * mode, including values the readers would otherwise take as quoting or escaping.
+ * Runs without a test framework: compile it together with the sources and run its
+ * main method, which throws an {@link AssertionError} on the first failure.
+ */
+public class CSVRoundTripTest {
+    private static final String[] TRICKY_VALUES = {
+        "plain",
+        "\"starts with a quote",
+        "ends with a backslash\\",
+        "escaped\\;delimiter",
+        "has;delimiter",
+        "has \"inner\" quotes",
+        "multi\nline",
+        ""
+    };
+
+    /**
+     * Runs every check.
+     *
+     * @param args unused
+     * @throws IOException if a temporary file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        formattedRowsParseBack();
+        savedPasswordsLoadBack();
+        System.out.println("CSVRoundTripTest passed");
+    }
+
+    private static void formattedRowsParseBack() throws IOException {
+        String row = DataReader.formatCSVRow(TRICKY_VALUES);
+        try (CSVTokenizer tokenizer = new CSVTokenizer(new StringReader(row + "\nnext;row\n"))) {
+            check(tokenizer.next(), "a row is read");
+            check(tokenizer.size() == TRICKY_VALUES.length,
+                    "field count " + tokenizer.size() + " != " + TRICKY_VALUES.length);
+            for (int i = 0; i < TRICKY_VALUES.length; i++) {
+                check(TRICKY_VALUES[i].equals(tokenizer.get(i)), "field " + i + " read as " + tokenizer.get(i));
+            }
+            check(tokenizer.next() && "next".equals(tokenizer.get(0)), "the following row stays separate");
+        }
+    }
+
+    private static void savedPasswordsLoadBack() throws IOException {
+        Journal.setInstance(new Journal(Files.createTempFile("journal", ".log").toString()));
+        List<Applicant> saved = new ArrayList<>();
+        for (int i = 0; i < TRICKY_VALUES.length; i++) {
+            Applicant applicant = new Applicant("User" + i, String.format("S%07dA", i), 40, "Married");
+            applicant.changePassword(TRICKY_VALUES[i]);
+            saved.add(applicant);
+        }
+        Path file = Files.createTempFile("applicants", ".csv");
+        UserCSVLoader loader = new UserCSVLoader();
+        check(loader.saveUserToCSV(file.toString(), saved), "users are saved");
+
+        for (DataReader.ReadMode mode : DataReader.ReadMode.values()) {
+            loader.setReadMode(mode);
+            List<Applicant> loaded = new ArrayList<>();
+            loader.loadApplicantsFromCSV(file.toString(), loaded);
+            check(loaded.size() == saved.size(), mode + ": loaded " + loaded.size() + " of " + saved.size());
+            for (int i = 0; i < saved.size(); i++) {
+                check(loaded.get(i).getNric().equals(saved.get(i).getNric()), mode + ": user " + i + " NRIC");
+                check(loaded.get(i).login(TRICKY_VALUES[i].trim()), mode + ": user " + i + " password");
+            }
+        }
+        Files.delete(file);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}